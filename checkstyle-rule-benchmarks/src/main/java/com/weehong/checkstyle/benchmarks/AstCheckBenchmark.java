@@ -0,0 +1,68 @@
+package com.weehong.checkstyle.benchmarks;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each TreeWalker check in {@code com.weehong.checkstyle.checks} on generated sources.
+ *
+ * <p>The source is parsed once per trial, so the score reflects the check alone, including
+ * the fact index it builds for every invocation.
+ * Run through {@link BenchmarkRunner} to also get the allocation rate of every check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AstCheckBenchmark {
+
+    @Param({
+        "ForSpacingCheck",
+        "IfSpacingCheck",
+        "MethodParameterLineBreakCheck",
+        "NoForbiddenLombokAnnotationsCheck",
+        "NoFullyQualifiedTypeReferenceCheck",
+        "NoMultipleBlankLinesCheck",
+        "NoSuppressWarningsCheck",
+        "NoTypeCastCheck",
+        "NoVarKeywordCheck",
+        "SwaggerAnnotationLineBreakCheck",
+        "SwitchSpacingCheck",
+        "TernaryOperatorLineBreakCheck",
+        "UnusedImportCheck",
+        "UnusedMethodCheck",
+        "UnusedVariableCheck",
+        "WhileSpacingCheck",
+    })
+    private String check;
+
+    @Param({"1000", "10000", "100000"})
+    private int lines;
+
+    private CheckHarness harness;
+
+    @Setup
+    public void setUp() throws IOException, CheckstyleException {
+        harness = CheckHarness.create(check, SourceGenerator.generate(lines));
+    }
+
+    @Benchmark
+    public int runCheck() {
+        return harness.run();
+    }
+}
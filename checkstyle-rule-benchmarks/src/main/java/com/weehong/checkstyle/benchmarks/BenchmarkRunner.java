@@ -0,0 +1,38 @@
+package com.weehong.checkstyle.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ *
+ * <p>Accepts the usual JMH command line options and always attaches the GC profiler,
+ * so every result reports ops/s together with the allocation rate
+ * ({@code gc.alloc.rate.norm} is bytes allocated per run of a check).
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line options, e.g. {@code AstCheckBenchmark -p lines=10000}
+     * @throws CommandLineOptionException if the options cannot be parsed
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,140 @@
+package com.weehong.checkstyle.benchmarks;
+
+import com.weehong.checkstyle.AstFactIndex;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.JavaParser;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Drives a single {@link AbstractCheck} over a pre-parsed AST the same way TreeWalker does.
+ *
+ * <p>Parsing happens once when the harness is created, so a benchmark that calls
+ * {@link #run()} measures the work done by the check itself, including building the
+ * per-file {@link AstFactIndex} that TreeWalker would build once for every file.
+ */
+public final class CheckHarness {
+
+    private static final String CHECKS_PACKAGE = "com.weehong.checkstyle.checks.";
+
+    private final AbstractCheck check;
+    private final FileContents contents;
+    private final DetailAST root;
+    private final BitSet tokens = new BitSet();
+
+    private CheckHarness(AbstractCheck check, FileContents contents, DetailAST root) {
+        this.check = check;
+        this.contents = contents;
+        this.root = root;
+
+        for (int token : check.getDefaultTokens()) {
+            tokens.set(token);
+        }
+    }
+
+    /**
+     * Creates a harness for the named check over the given source text.
+     *
+     * @param checkName simple class name of a check in {@code com.weehong.checkstyle.checks}
+     * @param source the Java source to check
+     * @return the harness
+     * @throws IOException if the source cannot be written to a temporary file
+     * @throws CheckstyleException if the check cannot be created or the source cannot be parsed
+     */
+    public static CheckHarness create(String checkName, String source)
+        throws IOException, CheckstyleException {
+        AbstractCheck check = newCheck(checkName);
+        FileText fileText = writeSource(source);
+        FileContents contents = new FileContents(fileText);
+        DetailAST root = JavaParser.parse(contents);
+
+        if (check.isCommentNodesRequired()) {
+            root = JavaParser.appendHiddenCommentNodes(root);
+        }
+
+        return new CheckHarness(check, contents, root);
+    }
+
+    /**
+     * Writes the source to a temporary file and reads it back as Checkstyle file text.
+     *
+     * @param source the source text
+     * @return the file text
+     * @throws IOException if the temporary file cannot be written or read
+     */
+    public static FileText writeSource(String source) throws IOException {
+        Path path = Files.createTempFile("checkstyle-benchmark", ".java");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, source, StandardCharsets.UTF_8);
+        return new FileText(path.toFile(), StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Runs the check over the whole tree once, as if it were a new file.
+     *
+     * @return the number of violations the check reported
+     */
+    public int run() {
+        // The tree is reused between runs, so drop its index for the check to build it again
+        AstFactIndex.release(root);
+        check.setFileContents(contents);
+        check.clearViolations();
+        check.beginTree(root);
+        walk();
+        check.finishTree(root);
+        return check.getViolations().size();
+    }
+
+    /**
+     * Gets the file backing the parsed source.
+     *
+     * @return the source file
+     */
+    public File getFile() {
+        return contents.getText().getFile();
+    }
+
+    private void walk() {
+        DetailAST current = root;
+
+        while (current != null) {
+            if (tokens.get(current.getType())) {
+                check.visitToken(current);
+            }
+
+            DetailAST next = current.getFirstChild();
+
+            while (current != null && next == null) {
+                if (tokens.get(current.getType())) {
+                    check.leaveToken(current);
+                }
+
+                next = current.getNextSibling();
+                current = current.getParent();
+            }
+
+            current = next;
+        }
+    }
+
+    private static AbstractCheck newCheck(String checkName) throws CheckstyleException {
+        try {
+            Class<?> checkClass = Class.forName(CHECKS_PACKAGE + checkName);
+            AbstractCheck check = (AbstractCheck) checkClass.getDeclaredConstructor().newInstance();
+            check.configure(new DefaultConfiguration(checkClass.getName()));
+            return check;
+        } catch (ReflectiveOperationException ex) {
+            throw new CheckstyleException("Cannot create check " + checkName, ex);
+        }
+    }
+}
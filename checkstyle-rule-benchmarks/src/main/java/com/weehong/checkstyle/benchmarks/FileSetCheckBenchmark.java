@@ -0,0 +1,83 @@
+package com.weehong.checkstyle.benchmarks;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.checks.regexp.RegexpSinglelineCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck;
+import com.weehong.checkstyle.checks.NoMultipleBlankLinesFileCheck;
+import com.weehong.checkstyle.checks.WhitespaceHygieneFileCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the file-set checks in {@code com.weehong.checkstyle.checks} on generated sources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileSetCheckBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int lines;
+
+    private FileText fileText;
+
+    private NoMultipleBlankLinesFileCheck noMultipleBlankLinesFileCheck;
+
+    private WhitespaceHygieneFileCheck whitespaceHygieneFileCheck;
+
+    private FileTabCharacterCheck fileTabCharacterCheck;
+
+    private RegexpSinglelineCheck trailingSpacesCheck;
+
+    @Setup
+    public void setUp() throws IOException {
+        fileText = CheckHarness.writeSource(SourceGenerator.generate(lines));
+        noMultipleBlankLinesFileCheck = new NoMultipleBlankLinesFileCheck();
+        whitespaceHygieneFileCheck = new WhitespaceHygieneFileCheck();
+        fileTabCharacterCheck = new FileTabCharacterCheck();
+        trailingSpacesCheck = new RegexpSinglelineCheck();
+        trailingSpacesCheck.setFormat("\\s+$");
+        trailingSpacesCheck.setMessage("Line has trailing spaces.");
+        trailingSpacesCheck.beginProcessing(StandardCharsets.UTF_8.name());
+    }
+
+    @Benchmark
+    public int noMultipleBlankLinesFileCheck() throws CheckstyleException {
+        return noMultipleBlankLinesFileCheck.process(fileText.getFile(), fileText).size();
+    }
+
+    @Benchmark
+    public int whitespaceHygieneFileCheck() throws CheckstyleException {
+        return whitespaceHygieneFileCheck.process(fileText.getFile(), fileText).size();
+    }
+
+    /**
+     * The three modules that WhitespaceHygieneFileCheck replaces in the bundled configuration.
+     *
+     * @return the number of violations
+     * @throws CheckstyleException if a check fails
+     */
+    @Benchmark
+    public int standardWhitespaceChecks() throws CheckstyleException {
+        return fileTabCharacterCheck.process(fileText.getFile(), fileText).size()
+            + trailingSpacesCheck.process(fileText.getFile(), fileText).size()
+            + noMultipleBlankLinesFileCheck.process(fileText.getFile(), fileText).size();
+    }
+}
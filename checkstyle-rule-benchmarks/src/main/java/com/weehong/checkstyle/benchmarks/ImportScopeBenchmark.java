@@ -0,0 +1,49 @@
+package com.weehong.checkstyle.benchmarks;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures UnusedImportCheck on a 5,000-line file whose methods nest lambdas {@code depth} levels deep.
+ *
+ * <p>The per-identifier cost of deciding whether a token sits inside an import must not grow
+ * with nesting depth, so the scores for the shallow and the deep variant should stay close.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportScopeBenchmark {
+
+    private static final int LINES = 5000;
+
+    @Param({"1", "24"})
+    private int depth;
+
+    private CheckHarness harness;
+
+    @Setup
+    public void setUp() throws IOException, CheckstyleException {
+        harness = CheckHarness.create("UnusedImportCheck", SourceGenerator.generateNested(LINES, depth));
+    }
+
+    @Benchmark
+    public int unusedImportCheck() {
+        return harness.run();
+    }
+}
@@ -0,0 +1,222 @@
+package com.weehong.checkstyle.benchmarks;
+
+/**
+ * Generates synthetic Java sources used as benchmark input.
+ *
+ * <p>The generated code is syntactically valid Java that exercises every custom check:
+ * used and unused imports, control statements with and without surrounding blank lines,
+ * switch case groups, ternaries, casts, {@code var}, Lombok and Swagger annotations,
+ * long parameter lists, and unused private methods, locals and parameters.
+ * The output is deterministic so that results stay comparable between runs.
+ */
+public final class SourceGenerator {
+
+    private static final int METHODS_PER_NESTED_CLASS = 40;
+
+    private SourceGenerator() {
+    }
+
+    /**
+     * Generates a compilation unit of roughly the requested number of lines.
+     *
+     * @param targetLines the approximate number of lines to generate
+     * @return the generated source text
+     */
+    public static String generate(int targetLines) {
+        StringBuilder source = new StringBuilder(targetLines * 40);
+        appendHeader(source);
+
+        int lines = countLines(source);
+        int index = 0;
+
+        while (lines < targetLines) {
+            if (index > 0 && index % METHODS_PER_NESTED_CLASS == 0) {
+                lines += appendNestedClass(source, index);
+            }
+
+            lines += appendMethods(source, index);
+            index++;
+        }
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Generates a compilation unit of roughly the requested number of lines in which every
+     * method body is wrapped in {@code depth} levels of nested lambdas.
+     *
+     * @param targetLines the approximate number of lines to generate
+     * @param depth the number of nested lambda levels per method
+     * @return the generated source text
+     */
+    public static String generateNested(int targetLines, int depth) {
+        StringBuilder source = new StringBuilder(targetLines * 40);
+        appendHeader(source);
+
+        int lines = countLines(source);
+        int index = 0;
+
+        while (lines < targetLines) {
+            lines += appendNestedMethod(source, index, depth);
+            index++;
+        }
+
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private static void appendHeader(StringBuilder source) {
+        source.append("package com.weehong.checkstyle.benchmarks.generated;\n")
+            .append('\n')
+            .append("import io.swagger.v3.oas.annotations.media.Schema;\n")
+            .append("import java.util.ArrayList;\n")
+            .append("import java.util.HashMap;\n")
+            .append("import java.util.LinkedList;\n")
+            .append("import java.util.List;\n")
+            .append("import java.util.Map;\n")
+            .append("import java.util.Optional;\n")
+            .append("import java.util.function.Function;\n")
+            .append("import lombok.Builder;\n")
+            .append("import lombok.Getter;\n")
+            .append('\n')
+            .append("import static java.util.Collections.emptyList;\n")
+            .append("import static java.util.Collections.emptyMap;\n")
+            .append('\n')
+            .append("@Getter\n")
+            .append("@Builder\n")
+            .append("@Schema(description = \"Generated\", example = \"sample\", name = \"GeneratedSource\")\n")
+            .append("public class GeneratedSource {\n")
+            .append('\n')
+            .append("    private final Map<String, List<Integer>> values = new HashMap<>();\n")
+            .append("    private final List<String> names = new ArrayList<>();\n")
+            .append('\n');
+    }
+
+    private static int appendNestedClass(StringBuilder source, int index) {
+        int start = source.length();
+        source.append("    static class Nested").append(index).append(" {\n")
+            .append('\n')
+            .append("        private int counter;\n")
+            .append('\n')
+            .append("        int next(int step) {\n")
+            .append("            if (step > 0) {\n")
+            .append("                counter += step;\n")
+            .append("            }\n")
+            .append("            return counter;\n")
+            .append("        }\n")
+            .append('\n')
+            .append("        private void unusedNested").append(index).append("() {\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append('\n');
+        return countLines(source, start);
+    }
+
+    private static int appendMethods(StringBuilder source, int index) {
+        int start = source.length();
+        source.append("    public int compute").append(index)
+            .append("(int first, int second, String label, List<String> items, Map<String, Integer> lookup) {\n")
+            .append("        int total = first;\n")
+            .append("        int unusedLocal").append(index).append(" = second;\n")
+            .append("        if (first > second) {\n")
+            .append("            total += second;\n")
+            .append("        } else if (first < 0) {\n")
+            .append("            total -= first;\n")
+            .append("        }\n")
+            .append("        for (String item : items) {\n")
+            .append("            total += item.length();\n")
+            .append("        }\n")
+            .append('\n')
+            .append("        while (total > 1000) {\n")
+            .append("            total = total / 2;\n")
+            .append("        }\n")
+            .append('\n')
+            .append("        switch (total % 3) {\n")
+            .append("            case 0:\n")
+            .append("                total++;\n")
+            .append("                break;\n")
+            .append("            case 1:\n")
+            .append("                total--;\n")
+            .append("                break;\n")
+            .append('\n')
+            .append("            default:\n")
+            .append("                break;\n")
+            .append("        }\n")
+            .append('\n')
+            .append("        Object boxed = lookup.get(label);\n")
+            .append("        Integer cast = (Integer) boxed;\n")
+            .append("        var inferred = Optional.ofNullable(cast).orElse(0);\n")
+            .append("        String description = total > inferred ? label : \"none\";\n")
+            .append("        Function<String, Integer> length = value -> value == null\n")
+            .append("            ? 0\n")
+            .append("            : value.length();\n")
+            .append("        return total + length.apply(description) + helper").append(index).append("(total);\n")
+            .append("    }\n")
+            .append('\n')
+            .append("    @SuppressWarnings(\"unchecked\")\n")
+            .append("    private int helper").append(index).append("(int value) {\n")
+            .append("        List<String> copy = new LinkedList<>(names);\n")
+            .append("        for (int i = 0; i < value % 7; i++) {\n")
+            .append("            copy.add(String.valueOf(i));\n")
+            .append("        }\n")
+            .append("        return copy.size() + emptyList().size();\n")
+            .append("    }\n")
+            .append('\n')
+            .append("    private void unusedPrivate").append(index).append("(String ignored) {\n")
+            .append("        values.put(\"key\", new ArrayList<>());\n")
+            .append("    }\n")
+            .append('\n');
+        return countLines(source, start);
+    }
+
+    private static int appendNestedMethod(StringBuilder source, int index, int depth) {
+        int start = source.length();
+        source.append("    public Runnable nested").append(index).append("(List<String> items) {\n");
+        source.append("        return () -> {\n");
+
+        for (int level = 0; level < depth; level++) {
+            indent(source, level + 3).append("Runnable level").append(level).append(" = () -> {\n");
+        }
+
+        indent(source, depth + 3)
+            .append("Map<String, Integer> sizes = new HashMap<>(emptyMap());\n");
+        indent(source, depth + 3)
+            .append("items.forEach(item -> sizes.put(item, ")
+            .append("Optional.ofNullable(item).map(String::length).orElse(0)));\n");
+
+        for (int level = depth - 1; level >= 0; level--) {
+            indent(source, level + 3).append("};\n");
+            indent(source, level + 3).append("level").append(level).append(".run();\n");
+        }
+
+        source.append("        };\n")
+            .append("    }\n")
+            .append('\n');
+        return countLines(source, start);
+    }
+
+    private static StringBuilder indent(StringBuilder source, int level) {
+        for (int i = 0; i < level; i++) {
+            source.append("    ");
+        }
+
+        return source;
+    }
+
+    private static int countLines(CharSequence text) {
+        return countLines(text, 0);
+    }
+
+    private static int countLines(CharSequence text, int from) {
+        int lines = 0;
+
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+
+        return lines;
+    }
+}
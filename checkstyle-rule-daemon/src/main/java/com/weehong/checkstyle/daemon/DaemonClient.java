@@ -0,0 +1,69 @@
+package com.weehong.checkstyle.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends requests to a running {@link LintDaemon}.
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    /**
+     * Asks the daemon to check files.
+     *
+     * @param socket the path of the daemon's socket file
+     * @param files the files to check; relative paths are resolved against the working directory
+     * @return the lines of the report
+     * @throws IOException if the daemon cannot be reached
+     */
+    public static List<String> check(Path socket, List<Path> files) throws IOException {
+        StringBuilder request = new StringBuilder(LintDaemon.CHECK).append('\n');
+
+        for (Path file : files) {
+            request.append(file.toAbsolutePath().normalize()).append('\n');
+        }
+
+        return send(socket, request.append('\n').toString());
+    }
+
+    /**
+     * Asks the daemon to shut down.
+     *
+     * @param socket the path of the daemon's socket file
+     * @return the lines of the reply
+     * @throws IOException if the daemon cannot be reached
+     */
+    public static List<String> stop(Path socket) throws IOException {
+        return send(socket, LintDaemon.STOP + "\n");
+    }
+
+    private static List<String> send(Path socket, String request) throws IOException {
+        List<String> reply = new ArrayList<>();
+
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            writer.write(request);
+            writer.flush();
+            channel.shutdownOutput();
+
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                reply.add(line);
+            }
+        }
+
+        return reply;
+    }
+}
@@ -0,0 +1,265 @@
+package com.weehong.checkstyle.daemon;
+
+import com.weehong.checkstyle.runner.CollectingChecker;
+import com.weehong.checkstyle.runner.ParallelChecker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running Checkstyle process that answers check requests over a Unix domain socket.
+ *
+ * <p>The configuration is loaded once and a fixed number of Checkers are configured up
+ * front, so the check classes are loaded and every request runs on warm instances. Each
+ * connection carries one request, written as UTF-8 lines:
+ * <ul>
+ *   <li>{@code check}, followed by one absolute file path per line and an empty line or
+ *   the end of the input. The reply is the report of the plain logger: "Starting audit...",
+ *   one line per violation sorted by file and position, and "Audit done.".</li>
+ *   <li>{@code stop}, which shuts the daemon down after replying "Stopped.".</li>
+ * </ul>
+ *
+ * <p>Requests are served concurrently, one Checker each, up to the number of Checkers;
+ * further requests wait for a Checker to become free. Changes to the configuration take
+ * effect when the daemon is restarted.
+ */
+public final class LintDaemon implements Closeable {
+
+    /**
+     * Request that checks the files on the following lines.
+     */
+    public static final String CHECK = "check";
+
+    /**
+     * Request that stops the daemon.
+     */
+    public static final String STOP = "stop";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final String WARM_UP_SOURCE = "WarmUp.java.txt";
+
+    private final Configuration configuration;
+    private final Path socket;
+    private final BlockingQueue<CollectingChecker> checkers;
+    private final ExecutorService connections;
+    private final ServerSocketChannel server;
+
+    /**
+     * Configures the Checkers and binds the socket.
+     *
+     * @param configuration the root Checker configuration
+     * @param threads the number of Checkers, and so of requests served at the same time
+     * @param socket the path of the socket file
+     * @throws CheckstyleException if a Checker cannot be configured
+     * @throws IOException if another daemon is listening on the socket or it cannot be bound
+     */
+    public LintDaemon(Configuration configuration, int threads, Path socket) throws CheckstyleException, IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, but was " + threads);
+        }
+
+        this.configuration = configuration;
+        this.socket = socket;
+        checkers = new ArrayBlockingQueue<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            checkers.add(new CollectingChecker(configuration));
+        }
+
+        warmUp();
+
+        removeStaleSocket(socket);
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        connections = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Accepts requests until the daemon is stopped or closed.
+     *
+     * @throws IOException if the socket fails
+     */
+    public void serve() throws IOException {
+        while (server.isOpen()) {
+            SocketChannel client;
+
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException ex) {
+                // Closed by a stop request
+                break;
+            }
+
+            connections.execute(() -> handle(client));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.shutdown();
+        Files.deleteIfExists(socket);
+
+        try {
+            // Let the requests in progress hand their Checkers back
+            connections.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (CollectingChecker checker = checkers.poll(); checker != null; checker = checkers.poll()) {
+            checker.close();
+        }
+    }
+
+    /**
+     * Runs every Checker once over a source that uses most of the Java syntax, so the
+     * parser has built its prediction tables and the checks are compiled before the first
+     * request arrives instead of while it waits.
+     *
+     * @throws CheckstyleException if a Checker fails on the source
+     * @throws IOException if the source cannot be written
+     */
+    private void warmUp() throws CheckstyleException, IOException {
+        Path source = Files.createTempDirectory("checkstyle-daemon").resolve("WarmUp.java");
+
+        try (InputStream input = LintDaemon.class.getResourceAsStream(WARM_UP_SOURCE)) {
+            if (input == null) {
+                throw new IOException("Cannot find " + WARM_UP_SOURCE);
+            }
+
+            Files.copy(input, source);
+
+            for (CollectingChecker checker : checkers) {
+                checker.process(List.of(source.toFile()));
+            }
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(source.getParent());
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             BufferedReader reader = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             Writer writer = Channels.newWriter(client, StandardCharsets.UTF_8)) {
+            String command = reader.readLine();
+
+            if (CHECK.equals(command)) {
+                check(readFiles(reader), writer);
+            } else if (STOP.equals(command)) {
+                writer.write("Stopped.\n");
+                writer.flush();
+                server.close();
+            } else {
+                writer.write("Unknown request: " + command + "\n");
+            }
+        } catch (IOException ex) {
+            // The client went away; there is nobody left to report to
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void check(List<File> files, Writer writer) throws IOException, InterruptedException {
+        CollectingChecker checker = checkers.take();
+        List<AuditEvent> events;
+
+        try {
+            events = checker.process(files);
+        } catch (CheckstyleException | RuntimeException ex) {
+            checker = replace(checker);
+            writer.write("Checkstyle failed: " + ex.getMessage() + "\n");
+            return;
+        } finally {
+            checkers.add(checker);
+        }
+
+        events.sort(ParallelChecker.VIOLATION_ORDER);
+        writer.write("Starting audit...\n");
+
+        for (AuditEvent event : events) {
+            writer.write(ParallelChecker.format(event));
+            writer.write('\n');
+        }
+
+        writer.write("Audit done.\n");
+    }
+
+    /**
+     * Replaces a Checker that failed, since it may have stopped in the middle of a file.
+     *
+     * @param failed the failed Checker
+     * @return a newly configured Checker, or the failed one if none can be configured
+     */
+    private CollectingChecker replace(CollectingChecker failed) {
+        try {
+            CollectingChecker fresh = new CollectingChecker(configuration);
+            failed.close();
+            return fresh;
+        } catch (CheckstyleException ex) {
+            return failed;
+        }
+    }
+
+    private static List<File> readFiles(BufferedReader reader) throws IOException {
+        List<File> files = new ArrayList<>();
+
+        for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+            files.add(new File(line));
+        }
+
+        return files;
+    }
+
+    /**
+     * Removes a socket file left behind by a daemon that did not shut down cleanly, and
+     * refuses to take over the socket of a daemon that is still running.
+     *
+     * @param socket the path of the socket file
+     * @throws IOException if a daemon is listening on the socket
+     */
+    private static void removeStaleSocket(Path socket) throws IOException {
+        if (!Files.exists(socket)) {
+            return;
+        }
+
+        boolean listening;
+
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            listening = true;
+        } catch (IOException ex) {
+            listening = false;
+        }
+
+        if (listening) {
+            throw new IOException("A daemon is already listening on " + socket);
+        }
+
+        Files.delete(socket);
+    }
+}
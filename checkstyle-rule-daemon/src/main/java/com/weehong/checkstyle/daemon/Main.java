@@ -0,0 +1,161 @@
+package com.weehong.checkstyle.daemon;
+
+import com.weehong.checkstyle.runner.ParallelChecker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the daemon jar.
+ *
+ * <p>{@code serve} starts a daemon on a socket and runs until it is stopped, {@code check}
+ * sends files to a running daemon and prints its report, and {@code stop} shuts a daemon
+ * down. The exit status of {@code check} is the number of errors, as with Checkstyle's own
+ * command line.
+ */
+public final class Main {
+
+    private static final int INVALID_USAGE = -1;
+
+    private static final String REPORT_START = "Starting audit...";
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: java -jar checkstyle-daemon.jar serve [-c <config.xml>] [-t <threads>] <socket>",
+        "       java -jar checkstyle-daemon.jar check <socket> <file>...",
+        "       java -jar checkstyle-daemon.jar stop <socket>");
+
+    private Main() {
+    }
+
+    /**
+     * Runs a command and exits with its status.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs a command.
+     *
+     * @param args the command line arguments
+     * @param out the stream the report is printed to
+     * @param err the stream usage and failures are printed to
+     * @return the number of errors for {@code check}, 0 for the other commands, or -1 if the
+     *     arguments are invalid or the daemon fails
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        try {
+            if (args.length == 0) {
+                err.println(USAGE);
+                return INVALID_USAGE;
+            }
+
+            switch (args[0]) {
+                case "serve":
+                    return serve(args, err);
+                case "check":
+                    return check(args, out, err);
+                case "stop":
+                    return stop(args, out, err);
+                default:
+                    err.println(USAGE);
+                    return INVALID_USAGE;
+            }
+        } catch (CheckstyleException | IOException ex) {
+            err.println("Checkstyle daemon failed: " + ex.getMessage());
+            return INVALID_USAGE;
+        }
+    }
+
+    private static int serve(String[] args, PrintStream err) throws CheckstyleException, IOException {
+        String config = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path socket = null;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if ("-c".equals(args[i]) && i + 1 < args.length) {
+                    config = args[++i];
+                } else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (socket == null) {
+                    socket = Paths.get(args[i]);
+                } else {
+                    socket = null;
+                    break;
+                }
+            }
+        } catch (NumberFormatException ex) {
+            threads = 0;
+        }
+
+        if (socket == null || threads < 1) {
+            err.println(USAGE);
+            return INVALID_USAGE;
+        }
+
+        Configuration configuration = config == null
+            ? ParallelChecker.loadBundledConfiguration(System.getProperties())
+            : ParallelChecker.loadConfiguration(config, System.getProperties());
+
+        try (LintDaemon daemon = new LintDaemon(configuration, threads, socket)) {
+            daemon.serve();
+        }
+
+        return 0;
+    }
+
+    private static int check(String[] args, PrintStream out, PrintStream err) throws IOException {
+        if (args.length < 3) {
+            err.println(USAGE);
+            return INVALID_USAGE;
+        }
+
+        List<Path> files = new ArrayList<>();
+
+        for (int i = 2; i < args.length; i++) {
+            files.add(Paths.get(args[i]));
+        }
+
+        List<String> report = DaemonClient.check(Paths.get(args[1]), files);
+
+        // A report always starts the way the plain logger does; anything else is a failure
+        if (report.isEmpty() || !REPORT_START.equals(report.get(0))) {
+            report.forEach(err::println);
+            return INVALID_USAGE;
+        }
+
+        int errors = 0;
+
+        for (String line : report) {
+            out.println(line);
+
+            if (line.startsWith("[ERROR]")) {
+                errors++;
+            }
+        }
+
+        return errors;
+    }
+
+    private static int stop(String[] args, PrintStream out, PrintStream err) throws IOException {
+        if (args.length != 2) {
+            err.println(USAGE);
+            return INVALID_USAGE;
+        }
+
+        for (String line : DaemonClient.stop(Paths.get(args[1]))) {
+            out.println(line);
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.weehong.checkstyle.daemon;
+
+import com.weehong.checkstyle.runner.ParallelChecker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LintDaemonTest {
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Test
+    void testRepeatedRequestsMatchParallelChecker() throws Exception {
+        final Configuration configuration = ParallelChecker.loadBundledConfiguration(new Properties());
+        final Path input = Paths.get(LintDaemonTest.class.getResource("InputLintDaemon.java").toURI());
+        final Path socket = temporaryFolder.resolve("daemon.sock");
+
+        final List<String> expected = new ArrayList<>();
+        expected.add("Starting audit...");
+
+        for (AuditEvent event : new ParallelChecker(configuration, 1).process(List.of(input.toFile()))) {
+            expected.add(ParallelChecker.format(event));
+        }
+
+        expected.add("Audit done.");
+        assertThat(expected).hasSize(4);
+
+        final LintDaemon daemon = new LintDaemon(configuration, 2, socket);
+        final Thread server = new Thread(() -> serve(daemon));
+        server.start();
+
+        // Every request reuses the warm Checkers
+        for (int i = 0; i < 3; i++) {
+            assertThat(DaemonClient.check(socket, List.of(input))).isEqualTo(expected);
+        }
+
+        assertThrows(IOException.class, () -> new LintDaemon(configuration, 1, socket));
+
+        assertThat(DaemonClient.stop(socket)).containsExactly("Stopped.");
+        server.join(TimeUnit.SECONDS.toMillis(30));
+        assertThat(server.isAlive()).isFalse();
+        assertThat(Files.exists(socket)).isFalse();
+    }
+
+    @Test
+    void testStaleSocketIsReplaced() throws Exception {
+        final Configuration configuration = ParallelChecker.loadBundledConfiguration(new Properties());
+        final Path socket = Files.createFile(temporaryFolder.resolve("stale.sock"));
+
+        try (LintDaemon daemon = new LintDaemon(configuration, 1, socket)) {
+            final Thread server = new Thread(() -> serve(daemon));
+            server.start();
+
+            assertThat(DaemonClient.check(socket, List.of())).containsExactly("Starting audit...", "Audit done.");
+            assertThat(DaemonClient.stop(socket)).containsExactly("Stopped.");
+            server.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private static void serve(LintDaemon daemon) {
+        try (daemon) {
+            daemon.serve();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.weehong.checkstyle.daemon;
+
+public class InputLintDaemon {
+
+    public int count(java.util.List<String> values) {
+        var size = values.size();
+        return size;
+    }
+}
@@ -0,0 +1,127 @@
+package com.weehong.checkstyle.runner;
+
+import com.weehong.checkstyle.ViolationCollector;
+import com.weehong.checkstyle.checks.MappedWhitespaceFileCheck;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A configured Checker whose violations are collected instead of logged.
+ *
+ * <p>Files accepted by a MappedWhitespaceFileCheck configured directly under the Checker,
+ * those above its threshold, are left out of the Checker's file list so that they are never
+ * decoded. They are scanned from a memory-mapped buffer instead and their violations are
+ * fired through the Checker, so filters still apply. No other check sees these files, and
+ * BeforeExecutionFileFilters are not applied to them.
+ *
+ * <p>The Checker can process any number of file lists, one at a time; it is not thread-safe.
+ */
+public final class CollectingChecker implements AutoCloseable {
+
+    private static final String CHARSET_PROPERTY = "charset";
+
+    private final Checker checker = new Checker();
+
+    private final ViolationCollector collector = new ViolationCollector();
+
+    private final List<MappedWhitespaceFileCheck> mappedChecks = new ArrayList<>();
+
+    /**
+     * Creates and configures a Checker.
+     *
+     * @param configuration the root Checker configuration
+     * @throws CheckstyleException if the Checker cannot be configured
+     */
+    public CollectingChecker(Configuration configuration) throws CheckstyleException {
+        try {
+            checker.setModuleClassLoader(Checker.class.getClassLoader());
+            checker.configure(configuration);
+            checker.addListener(collector);
+            createMappedChecks(configuration);
+        } catch (CheckstyleException | RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Checks the files.
+     *
+     * @param files the files to check; files the configuration does not accept are skipped
+     * @return the violations, in the order they were reported
+     * @throws CheckstyleException if the Checker fails on a file
+     */
+    public List<AuditEvent> process(List<File> files) throws CheckstyleException {
+        List<File> decodedFiles = new ArrayList<>();
+        List<File> largeFiles = new ArrayList<>();
+
+        for (File file : files) {
+            if (mappedChecks.stream().anyMatch(check -> check.isLargeFile(file))) {
+                largeFiles.add(file);
+            } else {
+                decodedFiles.add(file);
+            }
+        }
+
+        collector.clear();
+        checker.process(decodedFiles);
+        scanLargeFiles(largeFiles);
+        return collector.getEvents();
+    }
+
+    @Override
+    public void close() {
+        mappedChecks.forEach(MappedWhitespaceFileCheck::destroy);
+        checker.destroy();
+    }
+
+    /**
+     * Creates an instance of every MappedWhitespaceFileCheck configured directly under the
+     * Checker, ready to scan files in the Checker's charset.
+     *
+     * @param configuration the root Checker configuration
+     * @throws CheckstyleException if a check cannot be configured
+     */
+    private void createMappedChecks(Configuration configuration) throws CheckstyleException {
+        String charset = Arrays.asList(configuration.getPropertyNames()).contains(CHARSET_PROPERTY)
+            ? configuration.getProperty(CHARSET_PROPERTY)
+            : StandardCharsets.UTF_8.name();
+
+        for (Configuration child : configuration.getChildren()) {
+            if (MappedWhitespaceFileCheck.class.getName().equals(child.getName())) {
+                MappedWhitespaceFileCheck check = new MappedWhitespaceFileCheck();
+                check.configure(child);
+                check.beginProcessing(charset);
+                mappedChecks.add(check);
+            }
+        }
+    }
+
+    private void scanLargeFiles(List<File> files) {
+        for (File file : files) {
+            String fileName = file.getAbsolutePath();
+            SortedSet<Violation> violations = new TreeSet<>();
+
+            for (MappedWhitespaceFileCheck check : mappedChecks) {
+                if (check.isLargeFile(file)) {
+                    violations.addAll(check.scanLargeFile(file));
+                }
+            }
+
+            checker.fireFileStarted(fileName);
+            checker.fireErrors(fileName, violations);
+            checker.fireFileFinished(fileName);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.weehong.checkstyle.runner;
+
+import com.weehong.checkstyle.Baseline;
+import com.weehong.checkstyle.filters.BaselineFilter;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Entry point of the runner jar.
+ *
+ * <p>Checks the given files and directories with the bundled configuration, or with the
+ * one given by {@code -c}, in as many threads as there are processors unless {@code -t}
+ * says otherwise. Violations are printed in the format of Checkstyle's plain logger, sorted
+ * by file and position, and the exit status is the number of errors, as with Checkstyle's
+ * own command line.
+ *
+ * <p>With {@code -g}, the violations are not printed but written to a baseline file for
+ * BaselineFilter, with file names relative to the {@code basedir} system property or the
+ * working directory. Any BaselineFilter in the configuration is left out while the baseline
+ * is generated, so regenerating it keeps the violations it already lists.
+ */
+public final class Main {
+
+    private static final int INVALID_USAGE = -1;
+
+    private static final String USAGE =
+        "Usage: java -jar checkstyle-runner.jar [-c <config.xml>] [-t <threads>] [-g <baseline>]"
+            + " <file or directory>...";
+
+    private static final String BASEDIR_PROPERTY = "basedir";
+
+    private Main() {
+    }
+
+    /**
+     * Runs the checks and exits with the number of errors.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the checks.
+     *
+     * @param args the command line arguments
+     * @param out the stream the violations are printed to
+     * @param err the stream usage and failures are printed to
+     * @return the number of errors, 0 after generating a baseline, or -1 if the arguments or
+     *     the configuration are invalid
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        String config = null;
+        String baseline = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> paths = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("-c".equals(args[i]) && i + 1 < args.length) {
+                    config = args[++i];
+                } else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if ("-g".equals(args[i]) && i + 1 < args.length) {
+                    baseline = args[++i];
+                } else {
+                    paths.add(Paths.get(args[i]));
+                }
+            }
+
+            if (paths.isEmpty() || threads < 1) {
+                err.println(USAGE);
+                return INVALID_USAGE;
+            }
+
+            Configuration configuration = config == null
+                ? ParallelChecker.loadBundledConfiguration(System.getProperties())
+                : ParallelChecker.loadConfiguration(config, System.getProperties());
+
+            if (baseline != null) {
+                configuration = withoutModule(configuration, BaselineFilter.class.getName());
+            }
+
+            List<AuditEvent> events = new ParallelChecker(configuration, threads).process(listFiles(paths));
+
+            if (baseline != null) {
+                String basedir = System.getProperty(BASEDIR_PROPERTY, System.getProperty("user.dir"));
+                int entries = Baseline.write(Paths.get(baseline), events, basedir, StandardCharsets.UTF_8);
+                out.println("Wrote " + entries + " baseline entries for " + events.size() + " violations to "
+                    + baseline);
+                return 0;
+            }
+
+            return report(events, out);
+        } catch (NumberFormatException ex) {
+            err.println(USAGE);
+            return INVALID_USAGE;
+        } catch (CheckstyleException | IOException ex) {
+            err.println("Checkstyle failed: " + ex.getMessage());
+            return INVALID_USAGE;
+        }
+    }
+
+    private static int report(List<AuditEvent> events, PrintStream out) {
+        int errors = 0;
+        out.println("Starting audit...");
+
+        for (AuditEvent event : events) {
+            out.println(ParallelChecker.format(event));
+
+            if (event.getSeverityLevel() == SeverityLevel.ERROR) {
+                errors++;
+            }
+        }
+
+        out.println("Audit done.");
+        return errors;
+    }
+
+    /**
+     * Copies a configuration, leaving out every module with the given name.
+     *
+     * @param configuration the configuration
+     * @param moduleName the name of the modules to leave out
+     * @return the copy
+     * @throws CheckstyleException if a property cannot be read
+     */
+    private static Configuration withoutModule(Configuration configuration, String moduleName)
+        throws CheckstyleException {
+        DefaultConfiguration copy = new DefaultConfiguration(configuration.getName());
+
+        for (String name : configuration.getPropertyNames()) {
+            copy.addProperty(name, configuration.getProperty(name));
+        }
+
+        configuration.getMessages().forEach(copy::addMessage);
+
+        for (Configuration child : configuration.getChildren()) {
+            if (!moduleName.equals(child.getName())) {
+                copy.addChild(withoutModule(child, moduleName));
+            }
+        }
+
+        return copy;
+    }
+
+    private static List<File> listFiles(List<Path> paths) throws IOException {
+        List<File> files = new ArrayList<>();
+
+        for (Path path : paths) {
+            if (!Files.isDirectory(path)) {
+                files.add(path.toAbsolutePath().toFile());
+                continue;
+            }
+
+            try (Stream<Path> walk = Files.walk(path)) {
+                walk.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(file -> files.add(file.toAbsolutePath().toFile()));
+            }
+        }
+
+        return files;
+    }
+}
@@ -0,0 +1,252 @@
+package com.weehong.checkstyle.runner;
+
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader.IgnoredModulesOptions;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a Checkstyle configuration over a list of files in several threads.
+ *
+ * <p>The configuration is loaded once and shared read-only. The files are split into one
+ * partition per thread, balanced by file size, and every partition is processed by its own
+ * Checker, so each thread has its own TreeWalker and check instances. The violations of all
+ * partitions are merged and sorted by file, line, column, module and message, so the result
+ * does not depend on the number of threads.
+ *
+ * <p>Each partition is checked by a {@link CollectingChecker}, which scans the files above
+ * the threshold of a configured MappedWhitespaceFileCheck without decoding them.
+ *
+ * <p>Every partition is a separate Checker run. Modules that compare files with each other,
+ * such as UnusedMethodFileCheck, only see the files of their own partition and must not be
+ * used with more than one thread.
+ */
+public final class ParallelChecker {
+
+    /**
+     * Name of the configuration bundled with checkstyle-rule.
+     */
+    public static final String BUNDLED_CONFIGURATION = "checkstyle.xml";
+
+    /**
+     * Order of the reported violations: by file, line, column, module and message.
+     */
+    public static final Comparator<AuditEvent> VIOLATION_ORDER = Comparator
+        .comparing(AuditEvent::getFileName)
+        .thenComparingInt(AuditEvent::getLine)
+        .thenComparingInt(AuditEvent::getColumn)
+        .thenComparing(ParallelChecker::getModuleName)
+        .thenComparing(AuditEvent::getMessage);
+
+    private static final String BASEDIR_PROPERTY = "basedir";
+
+    private final Configuration configuration;
+
+    private final int threads;
+
+    /**
+     * Creates a runner for a loaded configuration.
+     *
+     * @param configuration the root Checker configuration
+     * @param threads the maximum number of threads, each with its own Checker
+     */
+    public ParallelChecker(Configuration configuration, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, but was " + threads);
+        }
+
+        this.configuration = configuration;
+        this.threads = threads;
+    }
+
+    /**
+     * Loads the configuration bundled with checkstyle-rule.
+     *
+     * @param properties the properties referenced by the configuration; {@code basedir}
+     *     defaults to the working directory
+     * @return the root Checker configuration
+     * @throws CheckstyleException if the configuration cannot be loaded
+     */
+    public static Configuration loadBundledConfiguration(Properties properties) throws CheckstyleException {
+        URL resource = ParallelChecker.class.getClassLoader().getResource(BUNDLED_CONFIGURATION);
+
+        if (resource == null) {
+            throw new CheckstyleException("Cannot find " + BUNDLED_CONFIGURATION + " on the class path");
+        }
+
+        return loadConfiguration(resource.toString(), properties);
+    }
+
+    /**
+     * Loads a configuration from a file, a URL or a class path resource.
+     *
+     * @param location the location of the configuration
+     * @param properties the properties referenced by the configuration; {@code basedir}
+     *     defaults to the working directory
+     * @return the root Checker configuration
+     * @throws CheckstyleException if the configuration cannot be loaded
+     */
+    public static Configuration loadConfiguration(String location, Properties properties)
+        throws CheckstyleException {
+        Properties resolved = new Properties();
+        resolved.putAll(properties);
+        resolved.putIfAbsent(BASEDIR_PROPERTY, System.getProperty("user.dir"));
+
+        return ConfigurationLoader.loadConfiguration(location, new PropertiesExpander(resolved),
+            IgnoredModulesOptions.OMIT);
+    }
+
+    /**
+     * Checks the files.
+     *
+     * @param files the files to check; files the configuration does not accept are skipped
+     * @return the violations of all files, in a deterministic order
+     * @throws CheckstyleException if a Checker cannot be configured or fails on a file
+     */
+    public List<AuditEvent> process(List<File> files) throws CheckstyleException {
+        List<List<File>> partitions = partition(files, Math.min(threads, files.size()));
+        List<AuditEvent> events = new ArrayList<>();
+
+        if (partitions.isEmpty()) {
+            return events;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions.size());
+
+        try {
+            List<Future<List<AuditEvent>>> results = new ArrayList<>();
+
+            for (List<File> partition : partitions) {
+                results.add(executor.submit(() -> check(partition)));
+            }
+
+            for (Future<List<AuditEvent>> result : results) {
+                events.addAll(await(result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        events.sort(VIOLATION_ORDER);
+        return events;
+    }
+
+    /**
+     * Gets the name a violation is reported under: the module id, or the simple class name
+     * of the module without its {@code Check} suffix.
+     *
+     * @param event the violation
+     * @return the module name
+     */
+    public static String getModuleName(AuditEvent event) {
+        if (event.getModuleId() != null) {
+            return event.getModuleId();
+        }
+
+        String sourceName = event.getSourceName();
+        String simpleName = sourceName.substring(sourceName.lastIndexOf('.') + 1);
+
+        return simpleName.endsWith("Check")
+            ? simpleName.substring(0, simpleName.length() - "Check".length())
+            : simpleName;
+    }
+
+    /**
+     * Formats a violation the way Checkstyle's plain logger does.
+     *
+     * @param event the violation
+     * @return the line describing the violation
+     */
+    public static String format(AuditEvent event) {
+        String severity = event.getSeverityLevel() == SeverityLevel.WARNING
+            ? "WARN"
+            : event.getSeverityLevel().getName().toUpperCase(Locale.ROOT);
+        String column = event.getColumn() > 0
+            ? ":" + event.getColumn()
+            : "";
+
+        return String.format(Locale.ROOT, "[%s] %s:%d%s: %s [%s]", severity, event.getFileName(),
+            event.getLine(), column, event.getMessage(), getModuleName(event));
+    }
+
+    private List<AuditEvent> check(List<File> files) throws CheckstyleException {
+        try (CollectingChecker checker = new CollectingChecker(configuration)) {
+            return checker.process(files);
+        }
+    }
+
+    /**
+     * Splits the files into partitions of about the same total size, assigning the largest
+     * files first, each to the partition that is smallest so far.
+     *
+     * @param files the files
+     * @param count the number of partitions
+     * @return the partitions
+     */
+    private static List<List<File>> partition(List<File> files, int count) {
+        List<List<File>> partitions = new ArrayList<>();
+        long[] sizes = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            partitions.add(new ArrayList<>());
+        }
+
+        List<File> largestFirst = new ArrayList<>(files);
+        largestFirst.sort(Comparator.comparingLong(File::length).reversed());
+
+        for (File file : largestFirst) {
+            int smallest = 0;
+
+            for (int i = 1; i < count; i++) {
+                if (sizes[i] < sizes[smallest]) {
+                    smallest = i;
+                }
+            }
+
+            partitions.get(smallest).add(file);
+            sizes[smallest] += file.length();
+        }
+
+        return partitions;
+    }
+
+    private static List<AuditEvent> await(Future<List<AuditEvent>> result) throws CheckstyleException {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckstyleException("Interrupted while waiting for the Checkers", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof CheckstyleException) {
+                throw (CheckstyleException) cause;
+            }
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new CheckstyleException("Checker failed", cause);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.weehong.checkstyle.runner;
+
+import com.weehong.checkstyle.checks.MappedWhitespaceFileCheck;
+import com.weehong.checkstyle.checks.WhitespaceHygieneFileCheck;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ParallelCheckerTest {
+
+    private static final String[] INPUTS = {
+        "InputParallelCheckerFirst.java",
+        "InputParallelCheckerSecond.java",
+        "InputParallelCheckerThird.properties",
+    };
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Test
+    void testResultDoesNotDependOnThreads() throws Exception {
+        final Configuration configuration = ParallelChecker.loadBundledConfiguration(new Properties());
+        final List<File> files = getInputs();
+
+        final List<String> expected = format(new ParallelChecker(configuration, 1).process(files));
+
+        assertThat(expected).isNotEmpty();
+        assertThat(format(new ParallelChecker(configuration, 2).process(files))).isEqualTo(expected);
+        assertThat(format(new ParallelChecker(configuration, 8).process(files))).isEqualTo(expected);
+    }
+
+    @Test
+    void testViolationsAreSorted() throws Exception {
+        final Configuration configuration = ParallelChecker.loadBundledConfiguration(new Properties());
+        final List<File> files = getInputs();
+
+        final List<String> expected = new ArrayList<>();
+        expected.add("InputParallelCheckerFirst.java:5:0: Avoid using fully qualified class names "
+            + "(e.g., java.util.HashMap). Use import statements instead. [NoFullyQualifiedTypeReference]");
+        expected.add("InputParallelCheckerFirst.java:6:9: Use of 'var' keyword is not allowed. "
+            + "Concrete data type must be explicitly declared. [NoVarKeyword]");
+        expected.add("InputParallelCheckerFirst.java:7:0: Line has trailing spaces. [WhitespaceHygieneFile]");
+        expected.add("InputParallelCheckerSecond.java:6:1: "
+            + "File contains tab characters (this is the first instance). [WhitespaceHygieneFile]");
+        expected.add("InputParallelCheckerSecond.java:6:16: Avoid using type casting. Consider using "
+            + "generics, polymorphism, or instanceof pattern matching instead. [NoTypeCast]");
+        expected.add("InputParallelCheckerThird.properties:3:0: "
+            + "More than 1 consecutive blank line is not allowed. [WhitespaceHygieneFile]");
+        expected.add("InputParallelCheckerThird.properties:4:0: Line has trailing spaces. [WhitespaceHygieneFile]");
+
+        assertThat(format(new ParallelChecker(configuration, 3).process(files))).isEqualTo(expected);
+    }
+
+    @Test
+    void testLargeFilesAreOnlyScannedMapped() throws Exception {
+        final DefaultConfiguration mappedConfig = new DefaultConfiguration(MappedWhitespaceFileCheck.class.getName());
+        mappedConfig.addProperty("threshold", "16");
+        mappedConfig.addProperty("fileExtensions", "properties");
+        final DefaultConfiguration configuration = new DefaultConfiguration(Checker.class.getName());
+        configuration.addChild(mappedConfig);
+        configuration.addChild(new DefaultConfiguration(WhitespaceHygieneFileCheck.class.getName()));
+
+        // The properties file is left out of the Checker, so WhitespaceHygieneFileCheck never sees it
+        final List<String> expected = new ArrayList<>();
+        expected.add("InputParallelCheckerFirst.java:7:0: Line has trailing spaces. [WhitespaceHygieneFile]");
+        expected.add("InputParallelCheckerSecond.java:6:1: "
+            + "File contains tab characters (this is the first instance). [WhitespaceHygieneFile]");
+        expected.add("InputParallelCheckerThird.properties:3:0: "
+            + "More than 1 consecutive blank line is not allowed. [MappedWhitespaceFile]");
+        expected.add("InputParallelCheckerThird.properties:4:0: Line has trailing spaces. [MappedWhitespaceFile]");
+
+        assertThat(format(new ParallelChecker(configuration, 2).process(getInputs()))).isEqualTo(expected);
+    }
+
+    @Test
+    void testMainReturnsErrorCount() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        final List<String> args = new ArrayList<>(List.of("-t", "2"));
+
+        for (File file : getInputs()) {
+            args.add(file.getPath());
+        }
+
+        final int errors = Main.run(args.toArray(new String[0]),
+            new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+
+        assertThat(errors).isEqualTo(7);
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("InputParallelCheckerSecond.java:6:1: "
+            + "File contains tab characters (this is the first instance). [WhitespaceHygieneFile]");
+        assertThat(err.toString(StandardCharsets.UTF_8)).isEmpty();
+        assertThat(Main.run(new String[0], new PrintStream(out), new PrintStream(err))).isEqualTo(-1);
+    }
+
+    @Test
+    void testMainGeneratesBaseline() throws Exception {
+        final List<String> args = new ArrayList<>();
+
+        for (File file : getInputs()) {
+            args.add(Files.copy(file.toPath(), temporaryFolder.resolve(file.getName())).toString());
+        }
+
+        final String baseline = temporaryFolder.resolve("checkstyle-baseline.txt").toString();
+        final String previousBasedir = System.setProperty("basedir", temporaryFolder.toString());
+
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final List<String> generateArgs = new ArrayList<>(List.of("-g", baseline));
+            generateArgs.addAll(args);
+
+            assertThat(run(generateArgs, out)).isEqualTo(0);
+            assertThat(out.toString(StandardCharsets.UTF_8)).contains("Wrote 7 baseline entries for 7 violations");
+
+            // The bundled configuration picks the baseline up from the base directory
+            assertThat(run(args, new ByteArrayOutputStream())).isEqualTo(0);
+
+            // Regenerating ignores the existing baseline
+            assertThat(run(generateArgs, new ByteArrayOutputStream())).isEqualTo(0);
+            assertThat(Files.readAllLines(Path.of(baseline))).hasSize(8);
+        } finally {
+            if (previousBasedir == null) {
+                System.clearProperty("basedir");
+            } else {
+                System.setProperty("basedir", previousBasedir);
+            }
+        }
+    }
+
+    private static int run(List<String> args, ByteArrayOutputStream out) {
+        return Main.run(args.toArray(new String[0]), new PrintStream(out, true, StandardCharsets.UTF_8),
+            new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+    }
+
+    private static List<File> getInputs() throws URISyntaxException {
+        final List<File> files = new ArrayList<>();
+
+        for (String input : INPUTS) {
+            files.add(new File(ParallelCheckerTest.class.getResource(input).toURI()));
+        }
+
+        return files;
+    }
+
+    private static List<String> format(List<AuditEvent> events) {
+        final List<String> lines = new ArrayList<>();
+
+        for (AuditEvent event : events) {
+            lines.add(new File(event.getFileName()).getName() + ":" + event.getLine() + ":" + event.getColumn()
+                + ": " + event.getMessage() + " [" + ParallelChecker.getModuleName(event) + "]");
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,9 @@
+package com.weehong.checkstyle.runner;
+
+public class InputParallelCheckerFirst {
+
+    public int count(java.util.List<String> values) {
+        var size = values.size();
+        return size;   
+    }
+}
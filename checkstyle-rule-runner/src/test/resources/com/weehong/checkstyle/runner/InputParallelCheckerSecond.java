@@ -0,0 +1,8 @@
+package com.weehong.checkstyle.runner;
+
+public class InputParallelCheckerSecond {
+
+    public String describe(Object value) {
+	return (String) value;
+    }
+}
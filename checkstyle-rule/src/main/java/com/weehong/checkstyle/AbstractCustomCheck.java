@@ -0,0 +1,616 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for the custom AST checks.
+ *
+ * <p>The Checkstyle callbacks are final here and delegate to the {@code on*} hooks, which
+ * lets the base class skip a check entirely for a file whose result is already known.
+ * When a {@code cacheFile} is configured, either as a check property or through the
+ * {@value #CACHE_FILE_PROPERTY} system property, each file's violations are stored in a
+ * {@link CheckResultCache} under a key built from the file content, the check's class
+ * version, and its configured properties and messages. An unchanged file then replays its
+ * stored violations instead of running the check.
+ *
+ * <p>When {@code changedLines} is configured, either as a check property or through the
+ * {@value #CHANGED_LINES_PROPERTY} system property, it names a unified diff or line-range
+ * list read by {@link ChangedLines}. Files without changed lines are then skipped entirely,
+ * and checks that declare themselves {@link #isLineLocal() line-local} also skip every token
+ * whose subtree, widened by one line on each side, lies outside the changed ranges. The
+ * result cache is not used in this mode, since the violations depend on the diff.
+ *
+ * <p>A check can be given a per-file budget of milliseconds ({@code maxFileMillis}) and of
+ * visited tokens ({@code maxFileNodes}), either as check properties or through the
+ * {@value #MAX_FILE_MILLIS_PROPERTY} and {@value #MAX_FILE_NODES_PROPERTY} system
+ * properties; 0, the default, means no limit. A check that exceeds its budget on a file
+ * stops analysing it, drops what it found so far, and reports a single informational
+ * violation instead, so one pathological file cannot stall a build. The clock is read
+ * between callbacks, so a single expensive callback is only cut short after it returns.
+ *
+ * <p>While {@link CheckProfiler} is enabled, every callback is timed and its allocations
+ * are counted, and the totals of each file are recorded when the file is finished.
+ *
+ * <p>The cache key, the replayed violations and the profile counters belong to the file
+ * being checked, so every subclass is a {@code @FileStatefulCheck}: one instance must not
+ * be shared between threads, and each thread running a Checker gets its own. Everything
+ * shared between instances is either immutable, thread-confined, or a concurrent store.
+ */
+public abstract class AbstractCustomCheck extends AbstractCheck {
+
+    /**
+     * System property that enables the result cache for every custom check.
+     */
+    public static final String CACHE_FILE_PROPERTY = "com.weehong.checkstyle.cacheFile";
+
+    /**
+     * System property that restricts every custom check to the lines changed in a diff.
+     */
+    public static final String CHANGED_LINES_PROPERTY = "com.weehong.checkstyle.changedLines";
+
+    /**
+     * System property that sets the default time budget per file, in milliseconds.
+     */
+    public static final String MAX_FILE_MILLIS_PROPERTY = "com.weehong.checkstyle.maxFileMillis";
+
+    /**
+     * System property that sets the default budget of visited tokens per file.
+     */
+    public static final String MAX_FILE_NODES_PROPERTY = "com.weehong.checkstyle.maxFileNodes";
+
+    private static final String MSG_BUDGET_EXCEEDED =
+        "Analysis of ''{0}'' stopped after exceeding the budget of {1}.";
+
+    /**
+     * Number of tokens between two reads of the clock.
+     */
+    private static final int CLOCK_INTERVAL_MASK = 63;
+
+    private static final String CACHE_FILE_ATTRIBUTE = "cacheFile";
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static final Map<Class<?>, Long> CLASS_VERSIONS = new ConcurrentHashMap<>();
+
+    private String cacheFile = System.getProperty(CACHE_FILE_PROPERTY);
+
+    private CheckResultCache cache;
+
+    private long fingerprint;
+
+    private long cacheKey;
+
+    private SortedSet<Violation> cachedViolations;
+
+    private String changedLines = System.getProperty(CHANGED_LINES_PROPERTY);
+
+    private int[] changedRanges;
+
+    private boolean unchanged;
+
+    private boolean skipsUnchangedTokens;
+
+    private DetailAST root;
+
+    private AstFactIndex facts;
+
+    private long maxFileMillis = Long.getLong(MAX_FILE_MILLIS_PROPERTY, 0);
+
+    private long maxFileNodes = Long.getLong(MAX_FILE_NODES_PROPERTY, 0);
+
+    private long deadline;
+
+    private long visitedNodes;
+
+    private Violation budgetViolation;
+
+    private boolean profiling;
+
+    private long profiledNanos;
+
+    private long profiledTokens;
+
+    private long profiledBytes;
+
+    /**
+     * Sets the file in which results are cached between runs.
+     *
+     * @param cacheFile the path of the cache file
+     */
+    public void setCacheFile(String cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Sets the diff or line-range list that restricts the check to changed lines.
+     *
+     * @param changedLines the path of the diff or line-range list
+     */
+    public void setChangedLines(String changedLines) {
+        this.changedLines = changedLines;
+    }
+
+    /**
+     * Sets the time a file may take before the check gives up on it.
+     *
+     * @param maxFileMillis the budget in milliseconds, or 0 for no limit
+     */
+    public void setMaxFileMillis(long maxFileMillis) {
+        this.maxFileMillis = maxFileMillis;
+    }
+
+    /**
+     * Sets the number of tokens the check may visit in a file before it gives up on it.
+     *
+     * @param maxFileNodes the budget in tokens, or 0 for no limit
+     */
+    public void setMaxFileNodes(long maxFileNodes) {
+        this.maxFileNodes = maxFileNodes;
+    }
+
+    @Override
+    public final void beginTree(DetailAST rootAST) {
+        profiling = CheckProfiler.isEnabled();
+
+        if (!profiling) {
+            startTree(rootAST);
+            return;
+        }
+
+        profiledNanos = 0;
+        profiledTokens = 0;
+        profiledBytes = 0;
+        long bytes = CheckProfiler.allocatedBytes();
+        long start = System.nanoTime();
+        startTree(rootAST);
+        addProfile(start, bytes);
+    }
+
+    @Override
+    public final void visitToken(DetailAST ast) {
+        if (cachedViolations != null || budgetViolation != null || isSkipped(ast)) {
+            return;
+        }
+
+        if (isOverBudget(++visitedNodes)) {
+            return;
+        }
+
+        if (!profiling) {
+            onVisitToken(ast);
+            return;
+        }
+
+        long bytes = CheckProfiler.allocatedBytes();
+        long start = System.nanoTime();
+        onVisitToken(ast);
+        addProfile(start, bytes);
+        profiledTokens++;
+    }
+
+    @Override
+    public final void leaveToken(DetailAST ast) {
+        if (cachedViolations != null || budgetViolation != null || isSkipped(ast)) {
+            return;
+        }
+
+        if (!profiling) {
+            onLeaveToken(ast);
+            return;
+        }
+
+        long bytes = CheckProfiler.allocatedBytes();
+        long start = System.nanoTime();
+        onLeaveToken(ast);
+        addProfile(start, bytes);
+    }
+
+    @Override
+    public final void finishTree(DetailAST rootAST) {
+        if (!profiling) {
+            endTree(rootAST);
+            return;
+        }
+
+        long bytes = CheckProfiler.allocatedBytes();
+        long start = System.nanoTime();
+        endTree(rootAST);
+        addProfile(start, bytes);
+
+        String name = getId() == null
+            ? getClass().getSimpleName()
+            : getId();
+        CheckProfiler.record(name, getFilePath(), profiledNanos, profiledTokens, profiledBytes);
+    }
+
+    @Override
+    public SortedSet<Violation> getViolations() {
+        if (cachedViolations != null) {
+            return new TreeSet<>(cachedViolations);
+        }
+
+        if (budgetViolation != null) {
+            SortedSet<Violation> violations = new TreeSet<>();
+            violations.add(budgetViolation);
+            return violations;
+        }
+
+        return super.getViolations();
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+
+        if (cache != null) {
+            cache.flush();
+        }
+    }
+
+    /**
+     * Gets the fact index of the file being checked, building it on first use. The index is
+     * shared with the other checks running on the same tree and released when the file is
+     * finished, so it is only available from the {@code on*} hooks.
+     *
+     * @return the index for the current tree
+     */
+    protected final AstFactIndex getFacts() {
+        if (facts == null) {
+            facts = AstFactIndex.forTree(root);
+        }
+
+        return facts;
+    }
+
+    /**
+     * Tells whether the violations this check reports for a token depend only on the lines
+     * of the token's subtree and the line right before and after it. In changed-lines mode,
+     * tokens of a line-local check are skipped when none of those lines changed.
+     *
+     * @return true if the check is line-local
+     */
+    protected boolean isLineLocal() {
+        return false;
+    }
+
+    /**
+     * Called before any of the tokens of a file are visited.
+     *
+     * @param rootAST the root of the tree
+     */
+    protected void onBeginTree(DetailAST rootAST) {
+        // No code by default
+    }
+
+    /**
+     * Called to process a token.
+     *
+     * @param ast the token to process
+     */
+    protected void onVisitToken(DetailAST ast) {
+        // No code by default
+    }
+
+    /**
+     * Called after all the child nodes of a token have been processed.
+     *
+     * @param ast the token being finished
+     */
+    protected void onLeaveToken(DetailAST ast) {
+        // No code by default
+    }
+
+    /**
+     * Called after all of the tokens of a file have been processed.
+     *
+     * @param rootAST the root of the tree
+     */
+    protected void onFinishTree(DetailAST rootAST) {
+        // No code by default
+    }
+
+    /**
+     * Reads the clock that the time budget is measured with, in nanoseconds.
+     *
+     * @return the current value of {@link System#nanoTime()}
+     */
+    protected long readClock() {
+        return System.nanoTime();
+    }
+
+    private void startTree(DetailAST rootAST) {
+        cachedViolations = null;
+        budgetViolation = null;
+        visitedNodes = 0;
+        deadline = maxFileMillis > 0
+            ? readClock() + TimeUnit.MILLISECONDS.toNanos(maxFileMillis)
+            : 0;
+        changedRanges = null;
+        unchanged = false;
+        skipsUnchangedTokens = false;
+        root = rootAST;
+        facts = null;
+
+        if (changedLines != null) {
+            // Looked up per file, since a long-lived check may see the file rewritten between runs
+            changedRanges = ChangedLines.forFile(changedLines).getRanges(getFilePath());
+            unchanged = changedRanges == null;
+
+            if (unchanged) {
+                return;
+            }
+
+            skipsUnchangedTokens = isLineLocal();
+        } else if (cacheFile != null) {
+            if (cache == null) {
+                cache = CheckResultCache.forFile(cacheFile);
+                fingerprint = computeFingerprint();
+            }
+
+            cacheKey = CheckResultCache.combine(
+                CheckResultCache.contentHash(rootAST, this::getLines), fingerprint);
+            ByteBuffer result = cache.get(cacheKey);
+
+            if (result != null) {
+                cachedViolations = decode(result);
+                return;
+            }
+        }
+
+        onBeginTree(rootAST);
+    }
+
+    private void endTree(DetailAST rootAST) {
+        if (cachedViolations == null && !unchanged && budgetViolation == null && !isOverBudget(0)) {
+            onFinishTree(rootAST);
+
+            if (cache != null && !isOverBudget(0)) {
+                cache.put(cacheKey, encode(super.getViolations()));
+            }
+        }
+
+        // Pooled threads and long-lived checks must not keep the finished tree reachable
+        root = null;
+        facts = null;
+        AstFactIndex.release(rootAST);
+    }
+
+    /**
+     * Checks whether a token is to be skipped because its file, or for a line-local check
+     * its subtree and the lines next to it, did not change.
+     *
+     * @param ast the token
+     * @return true if the token is not to be processed
+     */
+    private boolean isSkipped(DetailAST ast) {
+        if (unchanged) {
+            return true;
+        }
+
+        if (!skipsUnchangedTokens) {
+            return false;
+        }
+
+        // Operators come after their left operand, so the subtree starts at its leftmost leaf
+        int firstLine = ast.getLineNo();
+
+        for (DetailAST child = ast.getFirstChild(); child != null; child = child.getFirstChild()) {
+            firstLine = Math.min(firstLine, child.getLineNo());
+        }
+
+        return !ChangedLines.intersects(changedRanges, firstLine - 1, getFacts().getLastLine(ast) + 1);
+    }
+
+    /**
+     * Checks the budget and, once it is exceeded, replaces the file's violations with a
+     * single informational one.
+     *
+     * @param nodes the number of tokens visited so far, or 0 to only check the clock
+     * @return true if the budget is exceeded
+     */
+    private boolean isOverBudget(long nodes) {
+        String budget = null;
+
+        if (maxFileNodes > 0 && nodes > maxFileNodes) {
+            budget = maxFileNodes + " nodes";
+        } else if (deadline != 0 && (nodes & CLOCK_INTERVAL_MASK) == 0 && readClock() - deadline > 0) {
+            budget = maxFileMillis + " ms";
+        }
+
+        if (budget == null) {
+            return false;
+        }
+
+        clearViolations();
+        String fileName = Paths.get(getFilePath()).getFileName().toString();
+        budgetViolation = new Violation(1, 0, 0, 0, getMessageBundle(), MSG_BUDGET_EXCEEDED,
+            new Object[] {fileName, budget}, SeverityLevel.INFO, getId(), getClass(), MSG_BUDGET_EXCEEDED);
+        return true;
+    }
+
+    private void addProfile(long start, long bytes) {
+        profiledNanos += System.nanoTime() - start;
+        profiledBytes += CheckProfiler.allocatedBytes() - bytes;
+    }
+
+    private byte[] encode(SortedSet<Violation> violations) {
+        CheckResultCache.Encoder encoder = CheckResultCache.encoder().putInt(violations.size());
+
+        for (Violation violation : violations) {
+            encoder.putInt(violation.getLineNo())
+                .putInt(violation.getColumnNo())
+                .putInt(violation.getColumnCharIndex())
+                .putInt(violation.getTokenType())
+                .putString(violation.getKey())
+                .putString(violation.getViolation());
+        }
+
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Rebuilds stored violations. The rendered message is replayed as an escaped custom
+     * message, so it reads exactly as it did when it was stored.
+     *
+     * @param result the encoded result
+     * @return the violations
+     */
+    private SortedSet<Violation> decode(ByteBuffer result) {
+        SortedSet<Violation> violations = new TreeSet<>();
+        int count = result.getInt();
+
+        for (int i = 0; i < count; i++) {
+            int lineNo = result.getInt();
+            int columnNo = result.getInt();
+            int columnCharIndex = result.getInt();
+            int tokenType = result.getInt();
+            String key = CheckResultCache.getString(result);
+            String message = CheckResultCache.getString(result);
+
+            violations.add(new Violation(lineNo, columnNo, columnCharIndex, tokenType,
+                getMessageBundle(), key, NO_ARGUMENTS, getSeverityLevel(), getId(), getClass(),
+                escapeMessageFormat(message)));
+        }
+
+        return violations;
+    }
+
+    private long computeFingerprint() {
+        long hash = CheckResultCache.hash(getClass().getName());
+        hash = CheckResultCache.combine(hash, CLASS_VERSIONS.computeIfAbsent(getClass(),
+            AbstractCustomCheck::computeClassVersion));
+        hash = CheckResultCache.combine(hash, getTabWidth());
+        Configuration configuration = getConfiguration();
+
+        if (configuration == null) {
+            return hash;
+        }
+
+        String[] names = configuration.getPropertyNames();
+        Arrays.sort(names);
+
+        for (String name : names) {
+            if (!CACHE_FILE_ATTRIBUTE.equals(name)) {
+                hash = CheckResultCache.combine(hash, CheckResultCache.hash(name));
+                hash = CheckResultCache.combine(hash, CheckResultCache.hash(getProperty(configuration, name)));
+            }
+        }
+
+        for (Map.Entry<String, String> message : new TreeMap<>(configuration.getMessages()).entrySet()) {
+            hash = CheckResultCache.combine(hash, CheckResultCache.hash(message.getKey()));
+            hash = CheckResultCache.combine(hash, CheckResultCache.hash(message.getValue()));
+        }
+
+        return hash;
+    }
+
+    private static String getProperty(Configuration configuration, String name) {
+        try {
+            return configuration.getProperty(name);
+        } catch (CheckstyleException ex) {
+            return "";
+        }
+    }
+
+    /**
+     * Computes a version of a check's code. Checks loaded from a jar are versioned by the
+     * jar content; checks loaded from a class directory by their own class files and
+     * those of their superclasses up to this class.
+     *
+     * @param checkClass the check class
+     * @return the version hash
+     */
+    private static long computeClassVersion(Class<?> checkClass) {
+        try {
+            Path codeSource = getCodeSource(checkClass);
+
+            if (codeSource != null && Files.isRegularFile(codeSource)) {
+                return hashBytes(0, Files.readAllBytes(codeSource));
+            }
+
+            long version = 0;
+
+            for (Class<?> type = checkClass; type != AbstractCheck.class; type = type.getSuperclass()) {
+                String resource = '/' + type.getName().replace('.', '/') + ".class";
+
+                try (InputStream input = type.getResourceAsStream(resource)) {
+                    if (input != null) {
+                        version = hashBytes(version, input.readAllBytes());
+                    }
+                }
+            }
+
+            return version;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read the code of " + checkClass.getName(), ex);
+        }
+    }
+
+    private static Path getCodeSource(Class<?> checkClass) {
+        CodeSource codeSource = checkClass.getProtectionDomain().getCodeSource();
+        URL location = codeSource == null
+            ? null
+            : codeSource.getLocation();
+
+        if (location == null) {
+            return null;
+        }
+
+        try {
+            return Paths.get(location.toURI());
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static long hashBytes(long seed, byte[] bytes) {
+        long hash = seed ^ 0xCBF29CE484222325L;
+
+        for (byte value : bytes) {
+            hash = (hash ^ value) * 0x100000001B3L;
+        }
+
+        return CheckResultCache.combine(hash, bytes.length);
+    }
+
+    private static String escapeMessageFormat(String message) {
+        StringBuilder escaped = new StringBuilder(message.length() + 8);
+
+        for (int i = 0; i < message.length(); i++) {
+            char character = message.charAt(i);
+
+            if (character == '\'') {
+                escaped.append("''");
+            } else if (character == '{' || character == '}') {
+                escaped.append('\'').append(character).append('\'');
+            } else {
+                escaped.append(character);
+            }
+        }
+
+        return escaped.toString();
+    }
+}
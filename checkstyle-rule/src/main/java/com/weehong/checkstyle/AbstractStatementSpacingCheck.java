@@ -1,6 +1,5 @@
 package com.weehong.checkstyle;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -11,7 +10,7 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * by a blank line for improved readability, unless they are the first or last statement
  * in a block.
  */
-public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
+public abstract class AbstractStatementSpacingCheck extends AbstractCustomCheck {
 
     /**
      * Gets the message for when a blank line is required before the statement.
@@ -49,7 +48,12 @@ public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
         if (!shouldCheckSpacing(ast)) {
             return;
         }
@@ -143,24 +147,7 @@ public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
      * @return the previous sibling, or null if none exists
      */
     protected DetailAST getPreviousSibling(DetailAST ast) {
-        DetailAST parent = ast.getParent();
-
-        if (parent == null) {
-            return null;
-        }
-
-        DetailAST previous = null;
-        DetailAST current = parent.getFirstChild();
-
-        while (current != null && current != ast) {
-            if (isStatement(current)) {
-                previous = current;
-            }
-
-            current = current.getNextSibling();
-        }
-
-        return previous;
+        return getFacts().getPreviousStatement(ast);
     }
 
     /**
@@ -170,23 +157,7 @@ public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
      * @return the next sibling, or null if none exists
      */
     protected DetailAST getNextSibling(DetailAST ast) {
-        DetailAST parent = ast.getParent();
-
-        if (parent == null) {
-            return null;
-        }
-
-        DetailAST current = ast.getNextSibling();
-
-        while (current != null) {
-            if (isStatement(current)) {
-                return current;
-            }
-
-            current = current.getNextSibling();
-        }
-
-        return null;
+        return getFacts().getNextStatement(ast);
     }
 
     /**
@@ -194,12 +165,12 @@ public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
      *
      * @param ast the AST node to check
      * @return true if it's a statement
+     * @deprecated the statement neighbours are now indexed by {@link AstFactIndex}; use
+     *     {@link AstFactIndex#isStatement(DetailAST)} instead.
      */
+    @Deprecated
     protected boolean isStatement(DetailAST ast) {
-        int type = ast.getType();
-        return type != TokenTypes.LCURLY
-            && type != TokenTypes.RCURLY
-            && type != TokenTypes.SEMI;
+        return AstFactIndex.isStatement(ast);
     }
 
     /**
@@ -209,19 +180,6 @@ public abstract class AbstractStatementSpacingCheck extends AbstractCheck {
      * @return the last line number
      */
     protected int getLastLineOfNode(DetailAST ast) {
-        int lastLine = ast.getLineNo();
-        DetailAST child = ast.getFirstChild();
-
-        while (child != null) {
-            int childLastLine = getLastLineOfNode(child);
-
-            if (childLastLine > lastLine) {
-                lastLine = childLastLine;
-            }
-
-            child = child.getNextSibling();
-        }
-
-        return lastLine;
+        return getFacts().getLastLine(ast);
     }
 }
@@ -0,0 +1,166 @@
+package com.weehong.checkstyle;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the simple name of an annotation to the categories the custom checks care about.
+ *
+ * <p>The known names are stored in a perfect hash table: the table size and hash multiplier
+ * are chosen when the class is loaded so that no two names share a slot, and a lookup is a
+ * single probe followed by one string comparison. Names that are not in the table only
+ * pay for that probe and the prefix and suffix rules for framework entry points.
+ *
+ * <p>{@link AstFactIndex} classifies every annotation once while it indexes a tree, so the
+ * checks test a bit instead of looking names up themselves.
+ */
+public final class AnnotationClassifier {
+
+    /**
+     * Lombok annotation other than {@code @Getter} and {@code @Setter}.
+     */
+    public static final int LOMBOK_FORBIDDEN = 1;
+
+    /**
+     * Swagger/OpenAPI annotation whose properties must be laid out one per line.
+     */
+    public static final int SWAGGER = 1 << 1;
+
+    /**
+     * Annotation marking a method that a framework invokes, such as {@code @Test} or
+     * {@code @GetMapping}.
+     */
+    public static final int FRAMEWORK_ENTRY_POINT = 1 << 2;
+
+    /**
+     * The {@code @SuppressWarnings} annotation.
+     */
+    public static final int SUPPRESS_WARNINGS = 1 << 3;
+
+    /**
+     * The {@code @Override} annotation.
+     */
+    public static final int OVERRIDE = 1 << 4;
+
+    private static final int MAX_TABLE_BITS = 16;
+
+    private static final String[] NAMES;
+
+    private static final int[] KINDS;
+
+    private static final int MULTIPLIER;
+
+    private static final int SHIFT;
+
+    static {
+        Map<String, Integer> kinds = new LinkedHashMap<>();
+        add(kinds, LOMBOK_FORBIDDEN, List.of(
+            // Common annotations
+            "Data", "Value", "Builder", "AllArgsConstructor", "NoArgsConstructor",
+            "RequiredArgsConstructor", "ToString", "EqualsAndHashCode",
+            // Logging annotations
+            "Slf4j", "Log", "Log4j", "Log4j2", "CommonsLog", "XSlf4j", "Flogger", "CustomLog",
+            "JBossLog",
+            // Utility annotations
+            "Cleanup", "SneakyThrows", "Synchronized", "With", "Wither", "Delegate", "NonNull",
+            // Variable declaration
+            "var", "val",
+            // Class-level annotations
+            "UtilityClass", "FieldDefaults", "Accessors", "ExtensionMethod",
+            // Other annotations
+            "Tolerate", "Jacksonized", "SuperBuilder", "Singular", "Locked", "Unlocked"));
+        add(kinds, SWAGGER, List.of(
+            "Schema", "Operation", "ApiResponse", "ApiResponses", "Parameter", "RequestBody",
+            "Header", "Content", "ExampleObject", "ArraySchema"));
+        add(kinds, FRAMEWORK_ENTRY_POINT, List.of(
+            "Test", "Before", "After", "BeforeEach", "AfterEach", "BeforeAll", "AfterAll",
+            "PostConstruct", "PreDestroy", "Bean", "Scheduled", "EventListener"));
+        add(kinds, SUPPRESS_WARNINGS, List.of("SuppressWarnings"));
+        add(kinds, OVERRIDE, List.of("Override"));
+
+        String[] names = kinds.keySet().toArray(new String[0]);
+        int bits = 32 - Integer.numberOfLeadingZeros(names.length);
+        int multiplier = 0;
+        int[] slots = null;
+
+        // Widen the table until some multiplier spreads the names without a collision
+        while (slots == null) {
+            if (++bits > MAX_TABLE_BITS) {
+                throw new IllegalStateException("No perfect hash found for the annotation names");
+            }
+
+            for (int attempt = 0; slots == null && attempt < 1 << bits; attempt++) {
+                multiplier = 0x9E3779B9 + attempt * 2;
+                slots = assignSlots(names, multiplier, bits);
+            }
+        }
+
+        NAMES = new String[1 << bits];
+        KINDS = new int[1 << bits];
+        MULTIPLIER = multiplier;
+        SHIFT = 32 - bits;
+
+        for (int i = 0; i < names.length; i++) {
+            NAMES[slots[i]] = names[i];
+            KINDS[slots[i]] = kinds.get(names[i]);
+        }
+    }
+
+    private AnnotationClassifier() {
+    }
+
+    /**
+     * Classifies an annotation by its simple name.
+     *
+     * @param simpleName the simple name of the annotation, such as {@code Data}
+     * @return the categories as a bit mask of the constants of this class, or 0 if none apply
+     */
+    public static int classify(String simpleName) {
+        int slot = (simpleName.hashCode() * MULTIPLIER) >>> SHIFT;
+        int kinds = simpleName.equals(NAMES[slot])
+            ? KINDS[slot]
+            : 0;
+
+        if (simpleName.endsWith("Mapping")
+            || simpleName.startsWith("Post")
+            || simpleName.startsWith("Pre")
+            || simpleName.startsWith("Around")) {
+            kinds |= FRAMEWORK_ENTRY_POINT;
+        }
+
+        return kinds;
+    }
+
+    private static void add(Map<String, Integer> kinds, int kind, List<String> names) {
+        for (String name : names) {
+            kinds.merge(name, kind, (current, added) -> current | added);
+        }
+    }
+
+    /**
+     * Places every name in its own slot of a table of the given size.
+     *
+     * @param names the names to place
+     * @param multiplier the hash multiplier
+     * @param bits the number of bits of the table size
+     * @return the slot of each name, or null if two names collide
+     */
+    private static int[] assignSlots(String[] names, int multiplier, int bits) {
+        boolean[] used = new boolean[1 << bits];
+        int[] slots = new int[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            int slot = (names[i].hashCode() * multiplier) >>> (32 - bits);
+
+            if (used[slot]) {
+                return null;
+            }
+
+            used[slot] = true;
+            slots[i] = slot;
+        }
+
+        return slots;
+    }
+}
@@ -0,0 +1,419 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * Per-file index of the structural facts that the custom checks look up repeatedly.
+ *
+ * <p>For every node of a tree the index records the last line covered by the node and its
+ * children, and the previous and next statement among its siblings. Declarations also get
+ * their modifiers as a {@link Modifier} bit mask, and annotations get their simple name and
+ * their {@link AnnotationClassifier} categories. The categories of the annotations on a
+ * declaration are combined on the declaration and its MODIFIERS node.
+ *
+ * <p>All facts are computed in a single iterative traversal the first time a tree is
+ * requested, so deeply nested code neither re-walks the same subtrees nor risks overflowing
+ * the stack. The index is shared by all checks running on the same tree in the same thread,
+ * and every lookup is a constant-time probe into an identity hash table. Checks release it
+ * when they finish the tree, so a pooled thread does not keep the last file's tree alive.
+ */
+public final class AstFactIndex {
+
+    private static final ThreadLocal<AstFactIndex> CURRENT = new ThreadLocal<>();
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int INITIAL_DEPTH = 64;
+
+    private static final int NONE = -1;
+
+    private final DetailAST root;
+
+    private DetailAST[] table = new DetailAST[INITIAL_CAPACITY * 2];
+    private int[] tableOrdinals = new int[INITIAL_CAPACITY * 2];
+
+    private DetailAST[] nodes = new DetailAST[INITIAL_CAPACITY];
+    private int[] lastLines = new int[INITIAL_CAPACITY];
+    private int[] previousStatements = new int[INITIAL_CAPACITY];
+    private int[] nextStatements = new int[INITIAL_CAPACITY];
+    private int[] modifiers = new int[INITIAL_CAPACITY];
+    private String[] annotationNames = new String[INITIAL_CAPACITY];
+    private int[] annotationKinds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private AstFactIndex(DetailAST root) {
+        this.root = root;
+        indexTree();
+    }
+
+    /**
+     * Gets the index for the given tree, computing it if this thread has not seen the tree yet.
+     *
+     * @param rootAST the root of the tree being checked
+     * @return the index for the tree
+     */
+    public static AstFactIndex forTree(DetailAST rootAST) {
+        AstFactIndex index = CURRENT.get();
+
+        if (index == null || index.root != rootAST) {
+            index = new AstFactIndex(rootAST);
+            CURRENT.set(index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Forgets this thread's index if it belongs to the given tree. Checks that already hold
+     * the index keep using it; a later request for the tree builds it again.
+     *
+     * @param rootAST the root of the finished tree
+     */
+    public static void release(DetailAST rootAST) {
+        AstFactIndex index = CURRENT.get();
+
+        if (index != null && index.root == rootAST) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Checks if the given AST node represents a statement.
+     *
+     * @param ast the AST node to check
+     * @return true if it's a statement
+     */
+    public static boolean isStatement(DetailAST ast) {
+        int type = ast.getType();
+        return type != TokenTypes.LCURLY
+            && type != TokenTypes.RCURLY
+            && type != TokenTypes.SEMI;
+    }
+
+    /**
+     * Gets the last line number of a node (including all children).
+     *
+     * @param ast the AST node
+     * @return the last line number
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public int getLastLine(DetailAST ast) {
+        return lastLines[ordinalOf(ast)];
+    }
+
+    /**
+     * Gets the closest preceding sibling that is a statement.
+     *
+     * @param ast the AST node
+     * @return the previous statement, or null if none exists
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public DetailAST getPreviousStatement(DetailAST ast) {
+        return nodeAt(previousStatements[ordinalOf(ast)]);
+    }
+
+    /**
+     * Gets the closest following sibling that is a statement.
+     *
+     * @param ast the AST node
+     * @return the next statement, or null if none exists
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public DetailAST getNextStatement(DetailAST ast) {
+        return nodeAt(nextStatements[ordinalOf(ast)]);
+    }
+
+    /**
+     * Gets the modifiers of a declaration, or of a MODIFIERS node itself.
+     *
+     * @param ast the declaration or MODIFIERS node
+     * @return the modifiers as a {@link Modifier} bit mask, or 0 if the node has none
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public int getModifiers(DetailAST ast) {
+        return modifiers[ordinalOf(ast)];
+    }
+
+    /**
+     * Gets the simple name of an annotation, so {@code @lombok.Data} yields {@code Data}.
+     *
+     * @param annotation the ANNOTATION node
+     * @return the simple name, or null if the node is not an annotation with a name
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public String getAnnotationName(DetailAST annotation) {
+        return annotationNames[ordinalOf(annotation)];
+    }
+
+    /**
+     * Gets the categories of an annotation, or of all annotations on a declaration.
+     *
+     * @param ast the ANNOTATION node, or the declaration or MODIFIERS node
+     * @return the categories as an {@link AnnotationClassifier} bit mask, or 0 if none apply
+     * @throws IllegalArgumentException if the node is not part of the indexed tree
+     */
+    public int getAnnotationKinds(DetailAST ast) {
+        return annotationKinds[ordinalOf(ast)];
+    }
+
+    private void indexTree() {
+        int[] runningMax = new int[INITIAL_DEPTH];
+        int[] ordinalStack = new int[INITIAL_DEPTH];
+        DetailAST node = root;
+        int depth = 0;
+        runningMax[0] = node.getLineNo();
+        ordinalStack[0] = indexSiblings(node);
+
+        while (node != null) {
+            DetailAST child = node.getFirstChild();
+
+            if (child != null) {
+                int ownerOrdinal = depth == 0
+                    ? NONE
+                    : ordinalStack[depth - 1];
+                int childOrdinal = indexChildren(node, ordinalStack[depth], ownerOrdinal);
+                depth++;
+
+                if (depth == runningMax.length) {
+                    runningMax = Arrays.copyOf(runningMax, depth * 2);
+                    ordinalStack = Arrays.copyOf(ordinalStack, depth * 2);
+                }
+
+                runningMax[depth] = child.getLineNo();
+                ordinalStack[depth] = childOrdinal;
+                node = child;
+                continue;
+            }
+
+            // Leaf reached: finish nodes bottom-up until one has an unvisited sibling
+            while (node != null) {
+                int lastLine = runningMax[depth];
+                lastLines[ordinalStack[depth]] = lastLine;
+
+                if (depth > 0 && lastLine > runningMax[depth - 1]) {
+                    runningMax[depth - 1] = lastLine;
+                }
+
+                DetailAST sibling = node.getNextSibling();
+
+                if (sibling != null) {
+                    runningMax[depth] = sibling.getLineNo();
+                    ordinalStack[depth]++;
+                    node = sibling;
+                    break;
+                }
+
+                node = node.getParent();
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Registers the children of a node and derives the facts that depend on them.
+     *
+     * @param parent the node whose children are registered
+     * @param parentOrdinal the ordinal of the node
+     * @param ownerOrdinal the ordinal of the node's parent, or NONE at the top level
+     * @return the ordinal of the first child
+     */
+    private int indexChildren(DetailAST parent, int parentOrdinal, int ownerOrdinal) {
+        int firstOrdinal = indexSiblings(parent.getFirstChild());
+        int type = parent.getType();
+
+        if (type == TokenTypes.MODIFIERS) {
+            int mask = 0;
+
+            for (int ordinal = firstOrdinal; ordinal < size; ordinal++) {
+                mask |= modifierBit(nodes[ordinal].getType());
+            }
+
+            modifiers[parentOrdinal] = mask;
+
+            if (ownerOrdinal != NONE) {
+                modifiers[ownerOrdinal] = mask;
+            }
+        } else if (type == TokenTypes.ANNOTATION) {
+            String name = annotationName(firstOrdinal);
+            annotationNames[parentOrdinal] = name;
+
+            if (name != null) {
+                classifyAnnotation(parent, parentOrdinal, ownerOrdinal, AnnotationClassifier.classify(name));
+            }
+        }
+
+        return firstOrdinal;
+    }
+
+    /**
+     * Registers a chain of siblings and links every sibling to its neighbouring statements.
+     * Siblings always receive consecutive ordinals.
+     *
+     * @param first the first sibling of the chain
+     * @return the ordinal of the first sibling
+     */
+    private int indexSiblings(DetailAST first) {
+        int firstOrdinal = size;
+        int previous = NONE;
+
+        for (DetailAST sibling = first; sibling != null; sibling = sibling.getNextSibling()) {
+            int ordinal = register(sibling);
+            previousStatements[ordinal] = previous;
+
+            if (isStatement(sibling)) {
+                previous = ordinal;
+            }
+        }
+
+        int next = NONE;
+
+        for (int ordinal = size - 1; ordinal >= firstOrdinal; ordinal--) {
+            nextStatements[ordinal] = next;
+
+            if (isStatement(nodes[ordinal])) {
+                next = ordinal;
+            }
+        }
+
+        return firstOrdinal;
+    }
+
+    /**
+     * Records the categories of an annotation and adds them to the declaration it belongs to.
+     *
+     * @param annotation the ANNOTATION node
+     * @param annotationOrdinal the ordinal of the annotation
+     * @param ownerOrdinal the ordinal of the annotation's parent
+     * @param kinds the categories of the annotation
+     */
+    private void classifyAnnotation(DetailAST annotation, int annotationOrdinal, int ownerOrdinal, int kinds) {
+        annotationKinds[annotationOrdinal] = kinds;
+        DetailAST owner = annotation.getParent();
+
+        if (kinds != 0 && owner.getType() == TokenTypes.MODIFIERS) {
+            annotationKinds[ownerOrdinal] |= kinds;
+
+            if (owner.getParent() != null) {
+                annotationKinds[ordinalOf(owner.getParent())] |= kinds;
+            }
+        }
+    }
+
+    private String annotationName(int firstOrdinal) {
+        for (int ordinal = firstOrdinal; ordinal < size - 1; ordinal++) {
+            if (nodes[ordinal].getType() == TokenTypes.AT) {
+                DetailAST nameNode = nodes[ordinal + 1];
+
+                if (nameNode.getType() == TokenTypes.DOT) {
+                    nameNode = nameNode.getLastChild();
+                }
+
+                if (nameNode != null && nameNode.getType() == TokenTypes.IDENT) {
+                    return nameNode.getText();
+                }
+
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private static int modifierBit(int tokenType) {
+        switch (tokenType) {
+            case TokenTypes.LITERAL_PUBLIC:
+                return Modifier.PUBLIC;
+            case TokenTypes.LITERAL_PROTECTED:
+                return Modifier.PROTECTED;
+            case TokenTypes.LITERAL_PRIVATE:
+                return Modifier.PRIVATE;
+            case TokenTypes.LITERAL_STATIC:
+                return Modifier.STATIC;
+            case TokenTypes.FINAL:
+                return Modifier.FINAL;
+            case TokenTypes.ABSTRACT:
+                return Modifier.ABSTRACT;
+            case TokenTypes.LITERAL_SYNCHRONIZED:
+                return Modifier.SYNCHRONIZED;
+            case TokenTypes.LITERAL_NATIVE:
+                return Modifier.NATIVE;
+            case TokenTypes.LITERAL_TRANSIENT:
+                return Modifier.TRANSIENT;
+            case TokenTypes.LITERAL_VOLATILE:
+                return Modifier.VOLATILE;
+            case TokenTypes.STRICTFP:
+                return Modifier.STRICT;
+            default:
+                return 0;
+        }
+    }
+
+    private DetailAST nodeAt(int ordinal) {
+        return ordinal == NONE
+            ? null
+            : nodes[ordinal];
+    }
+
+    private int ordinalOf(DetailAST ast) {
+        int slot = findSlot(ast);
+
+        if (table[slot] == null) {
+            throw new IllegalArgumentException("Node is not part of the indexed tree: " + ast);
+        }
+
+        return tableOrdinals[slot];
+    }
+
+    private int register(DetailAST ast) {
+        if (size == nodes.length) {
+            grow();
+        }
+
+        int ordinal = size++;
+        int slot = findSlot(ast);
+        table[slot] = ast;
+        tableOrdinals[slot] = ordinal;
+        nodes[ordinal] = ast;
+        return ordinal;
+    }
+
+    private int findSlot(DetailAST ast) {
+        int mask = table.length - 1;
+        int slot = mix(System.identityHashCode(ast)) & mask;
+
+        while (table[slot] != null && table[slot] != ast) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = nodes.length * 2;
+        nodes = Arrays.copyOf(nodes, capacity);
+        lastLines = Arrays.copyOf(lastLines, capacity);
+        previousStatements = Arrays.copyOf(previousStatements, capacity);
+        nextStatements = Arrays.copyOf(nextStatements, capacity);
+        modifiers = Arrays.copyOf(modifiers, capacity);
+        annotationNames = Arrays.copyOf(annotationNames, capacity);
+        annotationKinds = Arrays.copyOf(annotationKinds, capacity);
+
+        table = new DetailAST[capacity * 2];
+        tableOrdinals = new int[capacity * 2];
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int slot = findSlot(nodes[ordinal]);
+            table[slot] = nodes[ordinal];
+            tableOrdinals[slot] = ordinal;
+        }
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
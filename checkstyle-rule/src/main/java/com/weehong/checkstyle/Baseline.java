@@ -0,0 +1,383 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A set of known violations that are not reported again.
+ *
+ * <p>A violation is identified by the hash of its file's path relative to the base
+ * directory, the name of the module that reported it, and the hash of the content of its
+ * line with leading and trailing whitespace removed. Line numbers are not part of the
+ * identity, so a known violation stays known when lines are added above it, and it stops
+ * being known as soon as its line is edited.
+ *
+ * <p>The baseline file holds one entry per line, as the hexadecimal path hash, the module
+ * name and the hexadecimal line hash separated by spaces, sorted so that regenerating a
+ * baseline gives a small diff. Blank lines and lines starting with {@code #} are ignored.
+ * When read, the entries are folded into 64-bit keys in an open addressing hash table, so
+ * a lookup costs one hash of the line and a probe, however many entries there are. The
+ * path hashes are kept in a second table, so files without known violations are never read.
+ *
+ * <p>All filters configured with the same file share one instance, which is read again
+ * when the file is modified.
+ */
+public final class Baseline {
+
+    private static final Map<Path, Baseline> SOURCES = new ConcurrentHashMap<>();
+
+    private static final String HEADER = "# Checkstyle baseline: path hash, module, line content hash";
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FileTime modified;
+
+    private final LongSet files;
+
+    private final LongSet entries;
+
+    private Baseline(Path file, FileTime modified) {
+        this.modified = modified;
+
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            files = new LongSet(lines.size());
+            entries = new LongSet(lines.size());
+
+            for (String rawLine : lines) {
+                String line = rawLine.trim();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split(" ");
+
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Malformed baseline entry '" + line + "' in " + file);
+                }
+
+                long pathHash = Long.parseUnsignedLong(parts[0], 16);
+                files.add(pathHash);
+                entries.add(key(pathHash, parts[1], Long.parseUnsignedLong(parts[2], 16)));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read baseline " + file, ex);
+        }
+    }
+
+    /**
+     * Gets the baseline read from the given file, reading it on first use and whenever it
+     * has been modified since.
+     *
+     * @param fileName the path of the baseline file
+     * @return the shared baseline for the file
+     */
+    public static Baseline forFile(String fileName) {
+        Path path = Paths.get(fileName).toAbsolutePath().normalize();
+        FileTime modified = getLastModifiedTime(path);
+
+        return SOURCES.compute(path, (key, current) -> current != null && current.modified.equals(modified)
+            ? current
+            : new Baseline(key, modified));
+    }
+
+    /**
+     * Checks whether any violation of a file is known.
+     *
+     * @param pathHash the hash of the file's relative path
+     * @return true if the baseline has an entry for the file
+     */
+    public boolean containsFile(long pathHash) {
+        return files.contains(pathHash);
+    }
+
+    /**
+     * Checks whether a violation is known.
+     *
+     * @param pathHash the hash of the file's relative path
+     * @param module the name of the module that reported the violation
+     * @param lineContent the content of the violation's line
+     * @return true if the baseline has an entry for the violation
+     */
+    public boolean contains(long pathHash, String module, String lineContent) {
+        return entries.contains(key(pathHash, module, hash(lineContent.strip())));
+    }
+
+    /**
+     * Writes a baseline that contains the given violations, replacing the file.
+     *
+     * @param file the baseline file
+     * @param events the violations
+     * @param basedir the directory that file names are made relative to, or null
+     * @param charset the charset of the checked files
+     * @return the number of distinct entries written
+     * @throws IOException if a file cannot be written
+     */
+    public static int write(Path file, Collection<AuditEvent> events, String basedir, Charset charset)
+        throws IOException {
+        TreeSet<String> lines = new TreeSet<>();
+        SourceLines sourceLines = new SourceLines(basedir, charset);
+
+        for (AuditEvent event : events) {
+            String path = relativize(basedir, event.getFileName());
+            String lineContent = sourceLines.getLine(event.getFileName(), event.getLine());
+
+            lines.add(String.format(Locale.ROOT, "%016x %s %016x", hash(path), getModuleName(event),
+                hash(lineContent.strip())));
+        }
+
+        List<String> content = new ArrayList<>(lines.size() + 1);
+        content.add(HEADER);
+        content.addAll(lines);
+        Files.write(file, content, StandardCharsets.UTF_8);
+
+        return lines.size();
+    }
+
+    /**
+     * Gets the name a violation is recorded under: the module id, or the simple class name
+     * of the module.
+     *
+     * @param event the violation
+     * @return the module name, without spaces
+     */
+    public static String getModuleName(AuditEvent event) {
+        String name = event.getModuleId();
+
+        if (name == null) {
+            String sourceName = event.getSourceName();
+            name = sourceName.substring(sourceName.lastIndexOf('.') + 1);
+        }
+
+        return name.replace(' ', '_');
+    }
+
+    /**
+     * Makes a file name relative to a base directory, with forward slashes.
+     *
+     * @param basedir the base directory, or null to keep the name as it is
+     * @param fileName the file name, absolute or already relative
+     * @return the relative file name
+     */
+    public static String relativize(String basedir, String fileName) {
+        Path path = Paths.get(fileName);
+
+        if (basedir != null && path.isAbsolute()) {
+            Path base = Paths.get(basedir).toAbsolutePath().normalize();
+            Path normalized = path.normalize();
+
+            if (normalized.startsWith(base)) {
+                path = base.relativize(normalized);
+            }
+        }
+
+        return path.toString().replace('\\', '/');
+    }
+
+    /**
+     * Hashes a string with 64-bit FNV-1a over its UTF-16 code units.
+     *
+     * @param text the string
+     * @return the hash
+     */
+    public static long hash(String text) {
+        long hash = FNV_OFFSET;
+
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static long key(long pathHash, String module, long lineHash) {
+        return mix(mix(pathHash * 31 + hash(module)) * 31 + lineHash);
+    }
+
+    /**
+     * Spreads the bits of a value with the SplitMix64 finalizer.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        long mixed = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    private static FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read baseline " + path, ex);
+        }
+    }
+
+    /**
+     * Reads the lines of checked files, keeping the last file read. Checker reports the
+     * violations of one file together, so each file is read at most once in a row.
+     */
+    public static final class SourceLines {
+
+        private final String basedir;
+
+        private final Charset charset;
+
+        private String fileName;
+
+        private List<String> lines = List.of();
+
+        /**
+         * Creates a reader.
+         *
+         * @param basedir the directory that relative file names are resolved against, or null
+         * @param charset the charset of the files
+         */
+        public SourceLines(String basedir, Charset charset) {
+            this.basedir = basedir;
+            this.charset = charset;
+        }
+
+        /**
+         * Gets the content of a line.
+         *
+         * @param name the file name, absolute or relative to the base directory
+         * @param lineNo the line number, starting at 1
+         * @return the content of the line, or an empty string if there is no such line or
+         *     the file cannot be read
+         */
+        public String getLine(String name, int lineNo) {
+            if (!name.equals(fileName)) {
+                fileName = name;
+                lines = read(name);
+            }
+
+            return lineNo >= 1 && lineNo <= lines.size()
+                ? lines.get(lineNo - 1)
+                : "";
+        }
+
+        private List<String> read(String name) {
+            File file = new File(name);
+
+            if (!file.isAbsolute() && basedir != null) {
+                file = new File(basedir, name);
+            }
+
+            try {
+                return Files.readAllLines(file.toPath(), charset);
+            } catch (MalformedInputException ex) {
+                return readLatin1(file);
+            } catch (IOException ex) {
+                return List.of();
+            }
+        }
+
+        private static List<String> readLatin1(File file) {
+            try {
+                return Files.readAllLines(file.toPath(), StandardCharsets.ISO_8859_1);
+            } catch (IOException ex) {
+                return List.of();
+            }
+        }
+    }
+
+    /**
+     * Open addressing hash set of longs with linear probing. Zero marks an empty slot, so
+     * a zero value is stored as one.
+     */
+    private static final class LongSet {
+
+        private long[] slots;
+
+        private int size;
+
+        private LongSet(int expected) {
+            slots = new long[tableSize(expected)];
+        }
+
+        private void add(long value) {
+            long stored = value == 0
+                ? 1
+                : value;
+
+            if ((size + 1) * 2 > slots.length) {
+                long[] old = slots;
+                slots = new long[old.length * 2];
+
+                for (long element : old) {
+                    if (element != 0) {
+                        insert(element);
+                    }
+                }
+            }
+
+            if (insert(stored)) {
+                size++;
+            }
+        }
+
+        private boolean contains(long value) {
+            long stored = value == 0
+                ? 1
+                : value;
+            int mask = slots.length - 1;
+
+            for (int slot = (int) mix(stored) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                if (slots[slot] == stored) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean insert(long stored) {
+            int mask = slots.length - 1;
+            int slot = (int) mix(stored) & mask;
+
+            while (slots[slot] != 0) {
+                if (slots[slot] == stored) {
+                    return false;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = stored;
+            return true;
+        }
+
+        private static int tableSize(int expected) {
+            int size = 16;
+
+            while (size < expected * 2 && size < 1 << 30) {
+                size <<= 1;
+            }
+
+            return size;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.weehong.checkstyle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The lines changed per file, read from a unified diff or from a list of line ranges.
+ *
+ * <p>A unified diff, such as the output of {@code git diff}, contributes the new-side
+ * lines of every hunk; a hunk that only deletes lines marks the lines on both sides of the
+ * deletion. Any other file is read as a list with one file per line, followed by a colon
+ * and comma-separated lines or ranges, such as {@code src/Main.java:3,10-24}; a file without
+ * ranges is changed as a whole. Blank lines and lines starting with {@code #} are ignored.
+ *
+ * <p>File names are matched against the end of the checked file's path, so paths relative
+ * to the repository root, as in a diff, match the absolute paths Checkstyle works with. The
+ * ranges of a file are kept as a sorted array of merged, inclusive bounds.
+ *
+ * <p>All checks configured with the same file share one instance, which is read again
+ * when the file is modified.
+ */
+public final class ChangedLines {
+
+    private static final Map<Path, ChangedLines> SOURCES = new ConcurrentHashMap<>();
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    private static final String NEW_FILE_PREFIX = "+++ ";
+
+    private static final String GIT_NEW_PREFIX = "b/";
+
+    private static final String DELETED_FILE = "/dev/null";
+
+    private final Map<String, int[]> rangesByFile = new HashMap<>();
+
+    private final FileTime modified;
+
+    private ChangedLines(Path file, FileTime modified) {
+        this.modified = modified;
+
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Map<String, int[]> unmerged = isUnifiedDiff(lines)
+                ? parseDiff(lines)
+                : parseRanges(lines);
+
+            for (Map.Entry<String, int[]> entry : unmerged.entrySet()) {
+                rangesByFile.put(entry.getKey(), merge(entry.getValue()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read changed lines " + file, ex);
+        }
+    }
+
+    /**
+     * Gets the changed lines read from the given file, reading it on first use and whenever
+     * it has been modified since.
+     *
+     * @param fileName the path of the diff or range list
+     * @return the shared changed lines for the file
+     */
+    public static ChangedLines forFile(String fileName) {
+        Path path = Paths.get(fileName).toAbsolutePath().normalize();
+        FileTime modified = getLastModifiedTime(path);
+
+        return SOURCES.compute(path, (key, current) -> current != null && current.modified.equals(modified)
+            ? current
+            : new ChangedLines(key, modified));
+    }
+
+    /**
+     * Gets the changed ranges of a file.
+     *
+     * @param filePath the path of the checked file
+     * @return pairs of first and last changed line, sorted and disjoint, or null if the
+     *     file was not changed
+     */
+    public int[] getRanges(String filePath) {
+        String path = filePath.replace('\\', '/');
+        int[] ranges = rangesByFile.get(path);
+
+        // Try every suffix that starts at a directory boundary
+        for (int slash = path.indexOf('/'); ranges == null && slash >= 0; slash = path.indexOf('/', slash + 1)) {
+            ranges = rangesByFile.get(path.substring(slash + 1));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Checks whether any line between two lines was changed.
+     *
+     * @param ranges the changed ranges of a file, as returned by {@link #getRanges(String)}
+     * @param firstLine the first line, inclusive
+     * @param lastLine the last line, inclusive
+     * @return true if a changed range overlaps the lines
+     */
+    public static boolean intersects(int[] ranges, int firstLine, int lastLine) {
+        // Find the first range that does not end before the first line
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (ranges[middle * 2 + 1] < firstLine) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low * 2 < ranges.length && ranges[low * 2] <= lastLine;
+    }
+
+    private static FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read changed lines " + path, ex);
+        }
+    }
+
+    private static boolean isUnifiedDiff(List<String> lines) {
+        for (String line : lines) {
+            if (line.startsWith(NEW_FILE_PREFIX) || line.startsWith("diff ")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Map<String, int[]> parseDiff(List<String> lines) {
+        Map<String, int[]> ranges = new HashMap<>();
+        String file = null;
+
+        for (String line : lines) {
+            if (line.startsWith(NEW_FILE_PREFIX)) {
+                file = parseDiffPath(line.substring(NEW_FILE_PREFIX.length()));
+                continue;
+            }
+
+            Matcher hunk = HUNK_HEADER.matcher(line);
+
+            if (file == null || !hunk.find()) {
+                continue;
+            }
+
+            int start = Integer.parseInt(hunk.group(1));
+            int count = hunk.group(2) == null
+                ? 1
+                : Integer.parseInt(hunk.group(2));
+
+            // A pure deletion sits between the line it names and the next one
+            int first = count == 0
+                ? Math.max(start, 1)
+                : start;
+            int last = count == 0
+                ? start + 1
+                : start + count - 1;
+            add(ranges, file, first, last);
+        }
+
+        return ranges;
+    }
+
+    private static String parseDiffPath(String header) {
+        int tab = header.indexOf('\t');
+        String path = tab < 0
+            ? header.trim()
+            : header.substring(0, tab);
+
+        if (DELETED_FILE.equals(path)) {
+            return null;
+        }
+
+        return path.startsWith(GIT_NEW_PREFIX)
+            ? path.substring(GIT_NEW_PREFIX.length())
+            : path;
+    }
+
+    private static Map<String, int[]> parseRanges(List<String> lines) {
+        Map<String, int[]> ranges = new HashMap<>();
+
+        for (String rawLine : lines) {
+            String line = rawLine.trim();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            int colon = line.lastIndexOf(':');
+
+            // A colon followed by something other than ranges belongs to the path, as in C:\
+            if (colon < 0 || !line.substring(colon + 1).matches("[\\d,\\s-]+")) {
+                add(ranges, line.replace('\\', '/'), 1, Integer.MAX_VALUE);
+                continue;
+            }
+
+            String file = line.substring(0, colon).trim().replace('\\', '/');
+
+            for (String range : line.substring(colon + 1).split(",")) {
+                String trimmed = range.trim();
+                int dash = trimmed.indexOf('-');
+
+                if (dash < 0) {
+                    int lineNo = Integer.parseInt(trimmed);
+                    add(ranges, file, lineNo, lineNo);
+                } else {
+                    add(ranges, file, Integer.parseInt(trimmed.substring(0, dash).trim()),
+                        Integer.parseInt(trimmed.substring(dash + 1).trim()));
+                }
+            }
+        }
+
+        return ranges;
+    }
+
+    private static void add(Map<String, int[]> ranges, String file, int first, int last) {
+        int[] bounds = ranges.getOrDefault(file, new int[0]);
+        bounds = Arrays.copyOf(bounds, bounds.length + 2);
+        bounds[bounds.length - 2] = first;
+        bounds[bounds.length - 1] = last;
+        ranges.put(file, bounds);
+    }
+
+    /**
+     * Sorts ranges by their first line and merges the ones that overlap or touch.
+     *
+     * @param bounds pairs of first and last line, in any order
+     * @return pairs of first and last line, sorted and disjoint
+     */
+    private static int[] merge(int[] bounds) {
+        long[] ranges = new long[bounds.length / 2];
+
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = (long) bounds[i * 2] << 32 | bounds[i * 2 + 1] & 0xFFFFFFFFL;
+        }
+
+        Arrays.sort(ranges);
+        int[] merged = new int[bounds.length];
+        int count = 0;
+
+        for (long range : ranges) {
+            int first = (int) (range >>> 32);
+            int last = (int) range;
+
+            // Compare with first - 1, as a whole-file range ends at Integer.MAX_VALUE
+            if (count > 0 && first - 1 <= merged[count - 1]) {
+                merged[count - 1] = Math.max(merged[count - 1], last);
+            } else {
+                merged[count++] = first;
+                merged[count++] = last;
+            }
+        }
+
+        return Arrays.copyOf(merged, count);
+    }
+}
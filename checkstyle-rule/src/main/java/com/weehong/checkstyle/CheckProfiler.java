@@ -0,0 +1,220 @@
+package com.weehong.checkstyle;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the time, visited tokens and allocated bytes of the custom checks, per check
+ * and per file.
+ *
+ * <p>Profiling is off by default and costs a single flag read per callback. While it is
+ * on, {@link AbstractCustomCheck} measures every callback it delegates to a check and
+ * records the totals of each file when the file is finished. Allocations are measured
+ * with the per-thread allocation counter of the JVM, where the JVM provides one.
+ *
+ * <p>{@link ProfilingAuditListener} switches profiling on for the duration of an audit
+ * and reports the result. Audits of Checkers running in parallel threads share one profile:
+ * it is cleared when the first of them starts and complete when the last one stops.
+ */
+public final class CheckProfiler {
+
+    private static final ThreadMXBean ALLOCATION_COUNTER = allocationCounter();
+
+    private static final Map<String, Stats> CHECKS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Stats> FILES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    private static int activeAudits;
+
+    private CheckProfiler() {
+    }
+
+    /**
+     * Starts profiling an audit. When no other audit is being profiled, all recorded results
+     * are discarded first.
+     */
+    public static synchronized void start() {
+        if (activeAudits++ == 0) {
+            CHECKS.clear();
+            FILES.clear();
+            enabled = true;
+        }
+    }
+
+    /**
+     * Stops profiling an audit. Profiling ends once every started audit has stopped; the
+     * results recorded so far are kept.
+     *
+     * @return true if no other audit is still being profiled
+     */
+    public static synchronized boolean stop() {
+        if (activeAudits > 0) {
+            activeAudits--;
+        }
+
+        enabled = activeAudits > 0;
+        return !enabled;
+    }
+
+    /**
+     * Checks whether profiling is on.
+     *
+     * @return true if the checks should measure their callbacks
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes, or 0 if the JVM does not count allocations
+     */
+    public static long allocatedBytes() {
+        return ALLOCATION_COUNTER == null
+            ? 0
+            : ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Records the totals of one check on one file.
+     *
+     * @param check the name of the check
+     * @param file the path of the file
+     * @param nanos the time spent in the check's callbacks
+     * @param tokens the number of tokens the check visited
+     * @param bytes the bytes allocated in the check's callbacks
+     */
+    public static void record(String check, String file, long nanos, long tokens, long bytes) {
+        CHECKS.computeIfAbsent(check, Stats::new).add(file, nanos, tokens, bytes);
+        FILES.computeIfAbsent(file, Stats::new).add(check, nanos, tokens, bytes);
+    }
+
+    /**
+     * Gets the recorded totals per check, slowest first.
+     *
+     * @return the check totals
+     */
+    public static List<Stats> getChecks() {
+        return ranked(CHECKS);
+    }
+
+    /**
+     * Gets the recorded totals per file, slowest first.
+     *
+     * @return the file totals
+     */
+    public static List<Stats> getFiles() {
+        return ranked(FILES);
+    }
+
+    private static List<Stats> ranked(Map<String, Stats> stats) {
+        List<Stats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(Stats::getNanos).reversed()
+            .thenComparing(Stats::getName));
+        return result;
+    }
+
+    private static ThreadMXBean allocationCounter() {
+        // Only JVMs such as HotSpot implement the extended bean with per-thread allocation counters
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean counter
+            && counter.isThreadAllocatedMemorySupported()
+            && counter.isThreadAllocatedMemoryEnabled()) {
+            return counter;
+        }
+
+        return null;
+    }
+
+    /**
+     * Totals of a check or a file.
+     */
+    public static final class Stats {
+
+        private final String name;
+        private long nanos;
+        private long tokens;
+        private long bytes;
+        private int count;
+        private String slowestPart;
+        private long slowestNanos = -1;
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(String part, long partNanos, long partTokens, long partBytes) {
+            nanos += partNanos;
+            tokens += partTokens;
+            bytes += partBytes;
+            count++;
+
+            if (partNanos > slowestNanos) {
+                slowestNanos = partNanos;
+                slowestPart = part;
+            }
+        }
+
+        /**
+         * Gets the name of the check or the path of the file.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the time spent.
+         *
+         * @return the time in nanoseconds
+         */
+        public synchronized long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Gets the number of visited tokens.
+         *
+         * @return the token count
+         */
+        public synchronized long getTokens() {
+            return tokens;
+        }
+
+        /**
+         * Gets the allocated bytes.
+         *
+         * @return the byte count
+         */
+        public synchronized long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Gets the number of recorded check runs: the files of a check, or the checks of a file.
+         *
+         * @return the run count
+         */
+        public synchronized int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the slowest single run: the slowest file of a check, or the slowest check of a file.
+         *
+         * @return the name of the slowest file or check
+         */
+        public synchronized String getSlowestPart() {
+            return slowestPart;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Persistent store of per-file check results, keyed by a 64-bit hash of the file content,
+ * the check and its configuration.
+ *
+ * <p>The store file holds a sorted table of keys followed by the encoded results. It is
+ * memory-mapped read-only when the store is opened, so a lookup is a binary search over
+ * the mapped key table and nothing is read for files that are never checked. A store whose
+ * header or entry table does not fit the file behaves like an empty one.
+ *
+ * <p>Results computed during the run are kept in memory and merged into the existing
+ * entries when the store is flushed, so a run over part of the files, such as a single
+ * module or one partition of a parallel run, leaves the other files' entries alone. Every
+ * entry records when it was last used; a hit refreshes that time at most once a day, and
+ * entries unused for {@value #MAX_AGE_DAYS} days belong to changed or deleted files and
+ * are dropped on the next flush.
+ *
+ * <p>All checks configured with the same file share one store instance, also across
+ * Checkers running in parallel threads: lookups and puts may happen while another thread
+ * flushes, and a flush keeps every entry used or added by any of them.
+ */
+public final class CheckResultCache {
+
+    private static final Map<Path, CheckResultCache> STORES = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<ContentHash> CONTENT_HASH = new ThreadLocal<>();
+
+    private static final int MAGIC = 0x57484343;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * Size of an entry in the key table: key, offset, length and time of last use.
+     */
+    private static final int INDEX_ENTRY_SIZE = 24;
+
+    private static final int MAX_AGE_DAYS = 14;
+
+    private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(MAX_AGE_DAYS);
+
+    private static final long REFRESH_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Path file;
+    private final Map<Long, byte[]> pending = new ConcurrentHashMap<>();
+    private final Set<Long> used = ConcurrentHashMap.newKeySet();
+    private volatile ByteBuffer mapped;
+    private volatile boolean dirty;
+
+    private CheckResultCache(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Gets the store backed by the given file, opening it on first use.
+     *
+     * @param fileName the path of the store file
+     * @return the shared store for the file
+     */
+    public static CheckResultCache forFile(String fileName) {
+        Path path = Paths.get(fileName).toAbsolutePath().normalize();
+        return STORES.computeIfAbsent(path, CheckResultCache::new);
+    }
+
+    /**
+     * Hashes the lines of a file. The hash is computed once per tree and thread and shared
+     * by all checks that run on the same tree. Only a weak reference to the tree is kept,
+     * so a pooled thread does not keep the last file reachable.
+     *
+     * @param rootAST the root of the tree being checked
+     * @param lines supplies the lines of the file, only called when the hash is computed
+     * @return the 64-bit content hash
+     */
+    public static long contentHash(DetailAST rootAST, Supplier<String[]> lines) {
+        ContentHash cached = CONTENT_HASH.get();
+
+        if (cached == null || cached.root.get() != rootAST) {
+            String[] text = lines.get();
+            long hash = mix(text.length);
+
+            for (String line : text) {
+                for (int i = 0; i < line.length(); i++) {
+                    hash = (hash ^ line.charAt(i)) * 0x100000001B3L;
+                }
+
+                hash = (hash ^ '\n') * 0x100000001B3L;
+            }
+
+            cached = new ContentHash(rootAST, mix(hash));
+            CONTENT_HASH.set(cached);
+        }
+
+        return cached.hash;
+    }
+
+    /**
+     * Combines two hashes into one.
+     *
+     * @param hash the running hash
+     * @param value the value to add
+     * @return the combined hash
+     */
+    public static long combine(long hash, long value) {
+        return mix(hash * 31 + value);
+    }
+
+    /**
+     * Hashes a string.
+     *
+     * @param value the string
+     * @return the 64-bit hash
+     */
+    public static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+
+        return mix(hash);
+    }
+
+    /**
+     * Looks up the encoded result stored under a key.
+     *
+     * @param key the entry key
+     * @return the encoded result, or null on a cache miss
+     */
+    public ByteBuffer get(long key) {
+        byte[] fresh = pending.get(key);
+
+        if (fresh != null) {
+            return ByteBuffer.wrap(fresh);
+        }
+
+        ByteBuffer store = mapped;
+        int low = 0;
+        int high = store.getInt(8) - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_SIZE + middle * INDEX_ENTRY_SIZE;
+            long entryKey = store.getLong(entry);
+
+            if (entryKey < key) {
+                low = middle + 1;
+            } else if (entryKey > key) {
+                high = middle - 1;
+            } else {
+                if (System.currentTimeMillis() - store.getLong(entry + 16) > REFRESH_MILLIS) {
+                    used.add(key);
+                    dirty = true;
+                }
+
+                return store.slice(store.getInt(entry + 8), store.getInt(entry + 12));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Stores an encoded result under a key.
+     *
+     * @param key the entry key
+     * @param result the encoded result
+     */
+    public void put(long key, byte[] result) {
+        pending.put(key, result);
+        dirty = true;
+    }
+
+    /**
+     * Writes the store to disk if any result was added, or any entry needs its time of last
+     * use refreshed, since it was opened or last flushed.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+
+        // Results put and entries used from here on are kept for the next flush
+        dirty = false;
+        Map<Long, byte[]> written = new HashMap<>(pending);
+        Set<Long> refreshed = new HashSet<>(used);
+
+        try {
+            write(merge(written, refreshed, System.currentTimeMillis()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write check result cache " + file, ex);
+        }
+
+        load();
+        written.forEach(pending::remove);
+        used.removeAll(refreshed);
+
+        if (!pending.isEmpty() || !used.isEmpty()) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Creates a writer for an encoded result.
+     *
+     * @return a new encoder
+     */
+    public static Encoder encoder() {
+        return new Encoder();
+    }
+
+    /**
+     * Reads a string written by {@link Encoder#putString(String)}.
+     *
+     * @param result the encoded result, positioned at the string
+     * @return the string
+     */
+    public static String getString(ByteBuffer result) {
+        byte[] encoded = new byte[result.getInt()];
+        result.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Merges the stored entries with the results of this run, dropping stored entries that
+     * have not been used for too long.
+     *
+     * @param written the results put during this run
+     * @param refreshed the keys of stored entries used during this run
+     * @param now the current time in milliseconds
+     * @return the entries to write, sorted by key
+     */
+    private TreeMap<Long, Entry> merge(Map<Long, byte[]> written, Set<Long> refreshed, long now) {
+        TreeMap<Long, Entry> entries = new TreeMap<>();
+        ByteBuffer store = mapped;
+        int count = store.getInt(8);
+
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            long key = store.getLong(entry);
+            long lastUsed = refreshed.contains(key)
+                ? now
+                : store.getLong(entry + 16);
+
+            if (now - lastUsed <= MAX_AGE_MILLIS) {
+                entries.put(key, new Entry(store.slice(store.getInt(entry + 8), store.getInt(entry + 12)), lastUsed));
+            }
+        }
+
+        written.forEach((key, result) -> entries.put(key, new Entry(ByteBuffer.wrap(result), now)));
+        return entries;
+    }
+
+    private void write(TreeMap<Long, Entry> entries) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int payloadStart = HEADER_SIZE + entries.size() * INDEX_ENTRY_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(payloadStart);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(entries.size());
+
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            ByteBuffer result = entry.getValue().result;
+            byte[] bytes = new byte[result.remaining()];
+            result.get(bytes);
+            header.putLong(entry.getKey())
+                .putInt(payloadStart + payload.size())
+                .putInt(bytes.length)
+                .putLong(entry.getValue().lastUsed);
+            payload.write(bytes);
+        }
+
+        Path parent = file.getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            header.flip();
+            channel.write(header);
+            channel.write(ByteBuffer.wrap(payload.toByteArray()));
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the store file. The mapping is published in one write, and its entry count is
+     * read from its own header, so concurrent lookups always see a consistent table.
+     */
+    private void load() {
+        mapped = map();
+    }
+
+    private ByteBuffer map() {
+        ByteBuffer empty = ByteBuffer.allocate(HEADER_SIZE);
+
+        if (!Files.isRegularFile(file)) {
+            return empty;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return empty;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (isValid(buffer, size)) {
+                return buffer;
+            }
+        } catch (IOException ex) {
+            // An unreadable store behaves like an empty one and is replaced on flush
+            return empty;
+        }
+
+        return empty;
+    }
+
+    /**
+     * Checks the header of a mapped store and that every entry lies within the file, so a
+     * truncated or corrupt store is never sliced out of bounds.
+     *
+     * @param buffer the mapped store
+     * @param size the size of the store file
+     * @return true if the store can be used
+     */
+    private static boolean isValid(ByteBuffer buffer, long size) {
+        int count = buffer.getInt(8);
+
+        if (buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != FORMAT_VERSION
+            || count < 0
+            || HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > size) {
+            return false;
+        }
+
+        long payloadStart = HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE;
+
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            int offset = buffer.getInt(entry + 8);
+            int length = buffer.getInt(entry + 12);
+
+            if (offset < payloadStart || length < 0 || (long) offset + length > size) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long mix(long value) {
+        long mixed = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return mixed ^ (mixed >>> 33);
+    }
+
+    /**
+     * Builds an encoded result from ints and strings.
+     */
+    public static final class Encoder {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output = new DataOutputStream(bytes);
+
+        private Encoder() {
+        }
+
+        /**
+         * Appends an int.
+         *
+         * @param value the value
+         * @return this encoder
+         */
+        public Encoder putInt(int value) {
+            try {
+                output.writeInt(value);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            return this;
+        }
+
+        /**
+         * Appends a string.
+         *
+         * @param value the value
+         * @return this encoder
+         */
+        public Encoder putString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+            try {
+                output.writeInt(encoded.length);
+                output.write(encoded);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            return this;
+        }
+
+        /**
+         * Gets the encoded bytes.
+         *
+         * @return the encoded result
+         */
+        public byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class ContentHash {
+
+        private final WeakReference<DetailAST> root;
+        private final long hash;
+
+        private ContentHash(DetailAST root, long hash) {
+            this.root = new WeakReference<>(root);
+            this.hash = hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final ByteBuffer result;
+        private final long lastUsed;
+
+        private Entry(ByteBuffer result, long lastUsed) {
+            this.result = result;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
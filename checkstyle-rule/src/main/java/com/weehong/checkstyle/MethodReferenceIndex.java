@@ -0,0 +1,215 @@
+package com.weehong.checkstyle;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Method declarations and method references collected over a whole Checker run.
+ *
+ * <p>UnusedMethodCollectorCheck fills the index from the trees TreeWalker has already
+ * parsed, and UnusedMethodFileCheck reads it once the last file is done. The two modules
+ * are configured separately, so the index is handed from one to the other through the
+ * thread running the Checker: the file check opens it in {@code beginProcessing} and
+ * releases it when processing ends, so no index outlives its run.
+ *
+ * <p>Only a compact symbol index is kept: method names are interned into a shared name
+ * table, declarations are primitive int arrays, and references are a bit set over the name
+ * table, so memory grows with the number of declarations, not with the size of the sources.
+ */
+public final class MethodReferenceIndex {
+
+    private static final ThreadLocal<MethodReferenceIndex> CURRENT = new ThreadLocal<>();
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final BitSet referencedNames = new BitSet();
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    private String[] fileNames = new String[INITIAL_CAPACITY];
+    private int fileCount;
+
+    private int[] declarationFiles = new int[INITIAL_CAPACITY];
+    private int[] declarationNames = new int[INITIAL_CAPACITY];
+    private int[] declarationLines = new int[INITIAL_CAPACITY];
+    private int[] declarationColumns = new int[INITIAL_CAPACITY];
+    private int declarationCount;
+
+    private MethodReferenceIndex() {
+    }
+
+    /**
+     * Opens an empty index for the run in this thread, replacing any previous one.
+     *
+     * @return the new index
+     */
+    public static MethodReferenceIndex open() {
+        MethodReferenceIndex index = new MethodReferenceIndex();
+        CURRENT.set(index);
+        return index;
+    }
+
+    /**
+     * Gets the index of the run in this thread.
+     *
+     * @return the open index, or null if no UnusedMethodFileCheck is running
+     */
+    public static MethodReferenceIndex current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Forgets this thread's index if it is the given one. The caller keeps its reference.
+     *
+     * @param index the index of the finished run
+     */
+    public static void release(MethodReferenceIndex index) {
+        if (CURRENT.get() == index) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Starts the declarations of a file. Declarations are added file by file.
+     *
+     * @param fileName the absolute path of the file
+     */
+    public void startFile(String fileName) {
+        if (fileCount == fileNames.length) {
+            fileNames = Arrays.copyOf(fileNames, fileCount * 2);
+        }
+
+        fileNames[fileCount++] = fileName;
+    }
+
+    /**
+     * Adds a declaration to the file started last.
+     *
+     * @param name the method name
+     * @param lineNo the line of the declaration
+     * @param columnNo the column of the declaration, with tabs expanded
+     */
+    public void addDeclaration(String name, int lineNo, int columnNo) {
+        if (declarationCount == declarationFiles.length) {
+            int capacity = declarationCount * 2;
+            declarationFiles = Arrays.copyOf(declarationFiles, capacity);
+            declarationNames = Arrays.copyOf(declarationNames, capacity);
+            declarationLines = Arrays.copyOf(declarationLines, capacity);
+            declarationColumns = Arrays.copyOf(declarationColumns, capacity);
+        }
+
+        declarationFiles[declarationCount] = fileCount - 1;
+        declarationNames[declarationCount] = intern(name);
+        declarationLines[declarationCount] = lineNo;
+        declarationColumns[declarationCount] = columnNo;
+        declarationCount++;
+    }
+
+    /**
+     * Records a call or method reference by name.
+     *
+     * @param name the method name
+     */
+    public void addReference(String name) {
+        referencedNames.set(intern(name));
+    }
+
+    /**
+     * Gets the number of files started.
+     *
+     * @return the number of files
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Gets the number of declarations, in the order of their files.
+     *
+     * @return the number of declarations
+     */
+    public int getDeclarationCount() {
+        return declarationCount;
+    }
+
+    /**
+     * Gets the file of a declaration.
+     *
+     * @param declaration the index of the declaration
+     * @return the absolute path of the file
+     */
+    public String getFileName(int declaration) {
+        return fileNames[declarationFiles[declaration]];
+    }
+
+    /**
+     * Checks whether two declarations are in the same file.
+     *
+     * @param first the index of a declaration
+     * @param second the index of another declaration
+     * @return true if both come from the same file
+     */
+    public boolean isSameFile(int first, int second) {
+        return declarationFiles[first] == declarationFiles[second];
+    }
+
+    /**
+     * Gets the method name of a declaration.
+     *
+     * @param declaration the index of the declaration
+     * @return the method name
+     */
+    public String getName(int declaration) {
+        return names[declarationNames[declaration]];
+    }
+
+    /**
+     * Gets the line of a declaration.
+     *
+     * @param declaration the index of the declaration
+     * @return the line number
+     */
+    public int getLineNo(int declaration) {
+        return declarationLines[declaration];
+    }
+
+    /**
+     * Gets the column of a declaration.
+     *
+     * @param declaration the index of the declaration
+     * @return the column number, with tabs expanded
+     */
+    public int getColumnNo(int declaration) {
+        return declarationColumns[declaration];
+    }
+
+    /**
+     * Checks whether any file calls or references a method with the declaration's name.
+     *
+     * @param declaration the index of the declaration
+     * @return true if the name is referenced
+     */
+    public boolean isReferenced(int declaration) {
+        return referencedNames.get(declarationNames[declaration]);
+    }
+
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+
+        if (id != null) {
+            return id;
+        }
+
+        int newId = nameIds.size();
+
+        if (newId == names.length) {
+            names = Arrays.copyOf(names, newId * 2);
+        }
+
+        names[newId] = name;
+        nameIds.put(name, newId);
+        return newId;
+    }
+}
@@ -0,0 +1,158 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Audit listener that profiles the custom checks during an audit and writes a ranked
+ * report when the audit finishes.
+ *
+ * <p>The report lists every check with its total time, share of the time spent in custom
+ * checks, visited tokens, allocated bytes and slowest file, followed by the slowest files
+ * with their slowest check. It is written to {@code file}, or to standard output when no
+ * file is set. Only checks extending {@link AbstractCustomCheck} are measured. When
+ * several Checkers run in parallel with this listener, only the last audit to finish
+ * writes the combined report.
+ */
+public class ProfilingAuditListener extends AbstractAutomaticBean implements AuditListener {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final double BYTES_PER_KILOBYTE = 1024.0;
+
+    /**
+     * File the report is written to.
+     */
+    private String file;
+
+    /**
+     * Maximum number of files listed in the report.
+     */
+    private int limit = 20;
+
+    /**
+     * Sets the file the report is written to.
+     *
+     * @param file the path of the report file
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Sets the maximum number of files listed in the report.
+     *
+     * @param limit the number of files
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        CheckProfiler.start();
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // Parallel audits share the profile, which the last one to finish reports
+        if (!CheckProfiler.stop()) {
+            return;
+        }
+
+        try {
+            if (file == null) {
+                PrintWriter output = new PrintWriter(System.out, false, StandardCharsets.UTF_8);
+                writeReport(output);
+                output.flush();
+            } else {
+                Path path = Paths.get(file);
+                Path parent = path.toAbsolutePath().getParent();
+
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+
+                try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                    writeReport(new PrintWriter(writer));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write check profile " + file, ex);
+        }
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        // No code by default
+    }
+
+    @Override
+    protected void finishLocalSetup() {
+        // No code by default
+    }
+
+    private void writeReport(PrintWriter output) {
+        List<CheckProfiler.Stats> checks = CheckProfiler.getChecks();
+        List<CheckProfiler.Stats> files = CheckProfiler.getFiles();
+        long totalNanos = 0;
+
+        for (CheckProfiler.Stats check : checks) {
+            totalNanos += check.getNanos();
+        }
+
+        output.printf(Locale.ROOT, "Custom check profile: %d checks, %d files, %.1f ms%n",
+            checks.size(), files.size(), totalNanos / NANOS_PER_MILLI);
+        output.printf(Locale.ROOT, "%nChecks, slowest first:%n");
+        output.printf(Locale.ROOT, "%5s %12s %7s %12s %14s  %s%n",
+            "rank", "time ms", "share", "tokens", "allocated KB", "check (slowest file)");
+
+        for (int i = 0; i < checks.size(); i++) {
+            CheckProfiler.Stats check = checks.get(i);
+            double share = totalNanos == 0
+                ? 0
+                : 100.0 * check.getNanos() / totalNanos;
+            output.printf(Locale.ROOT, "%5d %12.1f %6.1f%% %12d %14.1f  %s (%s)%n",
+                i + 1, check.getNanos() / NANOS_PER_MILLI, share, check.getTokens(),
+                check.getBytes() / BYTES_PER_KILOBYTE, check.getName(), check.getSlowestPart());
+        }
+
+        output.printf(Locale.ROOT, "%nFiles, slowest first:%n");
+        output.printf(Locale.ROOT, "%5s %12s %7s %12s %14s  %s%n",
+            "rank", "time ms", "checks", "tokens", "allocated KB", "file (slowest check)");
+
+        for (int i = 0; i < Math.min(limit, files.size()); i++) {
+            CheckProfiler.Stats fileStats = files.get(i);
+            output.printf(Locale.ROOT, "%5d %12.1f %7d %12d %14.1f  %s (%s)%n",
+                i + 1, fileStats.getNanos() / NANOS_PER_MILLI, fileStats.getCount(), fileStats.getTokens(),
+                fileStats.getBytes() / BYTES_PER_KILOBYTE, fileStats.getName(), fileStats.getSlowestPart());
+        }
+    }
+}
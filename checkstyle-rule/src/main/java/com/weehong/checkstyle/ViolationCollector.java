@@ -0,0 +1,83 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Audit listener that collects the violations of a Checker, for runners and tests that
+ * handle the violations themselves instead of logging them.
+ *
+ * <p>Violations with severity {@code ignore} are skipped, as Checkstyle's loggers skip them.
+ * Exceptions are only reported to listeners by a Checker that does not halt on them; they
+ * are collected as well, described by the file and the exception. A collector listens to a
+ * single Checker, which fires its events in the thread running it, so it needs no
+ * synchronization.
+ */
+public final class ViolationCollector implements AuditListener {
+
+    private final List<AuditEvent> events = new ArrayList<>();
+
+    private final List<String> exceptions = new ArrayList<>();
+
+    /**
+     * Gets the violations collected so far, in the order they were reported.
+     *
+     * @return a copy of the violations
+     */
+    public List<AuditEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Gets the exceptions collected so far, each as the file name and the exception.
+     *
+     * @return a copy of the exception descriptions
+     */
+    public List<String> getExceptions() {
+        return new ArrayList<>(exceptions);
+    }
+
+    /**
+     * Forgets the violations and exceptions collected so far, so the Checker can be reused.
+     */
+    public void clear() {
+        events.clear();
+        exceptions.clear();
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        // No code by default
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        if (event.getSeverityLevel() != SeverityLevel.IGNORE) {
+            events.add(event);
+        }
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        exceptions.add(event.getFileName() + ": " + throwable);
+    }
+}
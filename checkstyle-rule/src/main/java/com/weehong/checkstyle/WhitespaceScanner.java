@@ -0,0 +1,230 @@
+package com.weehong.checkstyle;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Single-pass scanner that finds tabs, trailing whitespace and repeated blank lines.
+ *
+ * <p>The scanner is fed either decoded characters or the raw bytes of a file in a charset in
+ * which line terminators, tabs and spaces are single ASCII bytes, and reports to a
+ * {@link Handler} what FileTabCharacter, a RegexpSingleline with the format {@code \s+$}
+ * and NoMultipleBlankLinesFileCheck look for. Lines end at {@code \n}, {@code \r\n} or
+ * {@code \r}, and a final line without a terminator only exists when it is not empty.
+ * Trailing whitespace is whatever {@code \s} matches: space, tab, form feed and vertical
+ * tab. A line is blank when it contains only characters up to and including the space
+ * character, exactly as {@link String#trim()} would leave it empty.
+ *
+ * <p>Bytes may be fed in several buffers, so a file can be scanned window by window. In
+ * UTF-8, character indexes count UTF-16 code units, like the indexes into the decoded text.
+ *
+ * <p>A scanner holds the state of the file being scanned and must not be shared between
+ * threads.
+ */
+public final class WhitespaceScanner {
+
+    private final Handler handler;
+
+    private boolean afterCarriageReturn;
+    private int lineNo;
+    private int charIndex;
+    private boolean trailingWhitespace;
+    private boolean lineNonEmpty;
+    private boolean lineBlank;
+    private boolean lineHasTab;
+    private int consecutiveBlankLines;
+
+    /**
+     * Creates a scanner.
+     *
+     * @param handler the handler that is told about every finding
+     */
+    public WhitespaceScanner(Handler handler) {
+        this.handler = handler;
+        start();
+    }
+
+    /**
+     * Scans a whole text.
+     *
+     * @param text the text
+     */
+    public void scan(CharSequence text) {
+        start();
+        accept(text);
+        finish();
+    }
+
+    /**
+     * Starts a new file at line 1.
+     */
+    public void start() {
+        afterCarriageReturn = false;
+        consecutiveBlankLines = 0;
+        lineNo = 1;
+        startLine();
+    }
+
+    /**
+     * Scans the next characters of the file.
+     *
+     * @param text the characters
+     */
+    public void accept(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char character = text.charAt(i);
+
+            if (!acceptControl(character)) {
+                acceptOther(character);
+                charIndex++;
+            }
+        }
+    }
+
+    /**
+     * Scans the next bytes of the file, from the buffer's position to its limit. The
+     * position is not changed.
+     *
+     * @param bytes the bytes
+     * @param utf8 whether the bytes are UTF-8, rather than a single-byte charset
+     */
+    public void accept(ByteBuffer bytes, boolean utf8) {
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            final int value = bytes.get(i) & 0xFF;
+
+            if (!acceptControl(value)) {
+                acceptOther(value);
+
+                // UTF-8 continuation bytes belong to the character their lead byte started
+                if (!utf8) {
+                    charIndex++;
+                } else if ((value & 0xC0) != 0x80) {
+                    charIndex += value >= 0xF0
+                        ? 2
+                        : 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends the file, reporting its last line if it has no terminator.
+     */
+    public void finish() {
+        if (lineNonEmpty) {
+            endLine();
+        }
+    }
+
+    private boolean acceptControl(int value) {
+        if (afterCarriageReturn) {
+            afterCarriageReturn = false;
+
+            if (value == '\n') {
+                return true;
+            }
+        }
+
+        switch (value) {
+            case '\r':
+                afterCarriageReturn = true;
+                endLine();
+                return true;
+
+            case '\n':
+                endLine();
+                return true;
+
+            case '\t':
+                if (!lineHasTab) {
+                    lineHasTab = true;
+                    handler.tab(lineNo, charIndex);
+                }
+
+                acceptWhitespace();
+                return true;
+
+            case ' ':
+            case 0x0B:
+            case '\f':
+                acceptWhitespace();
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private void acceptWhitespace() {
+        lineNonEmpty = true;
+        trailingWhitespace = true;
+        charIndex++;
+    }
+
+    private void acceptOther(int value) {
+        lineNonEmpty = true;
+        trailingWhitespace = false;
+
+        if (value > ' ') {
+            lineBlank = false;
+        }
+    }
+
+    private void startLine() {
+        charIndex = 0;
+        trailingWhitespace = false;
+        lineNonEmpty = false;
+        lineBlank = true;
+        lineHasTab = false;
+    }
+
+    private void endLine() {
+        if (trailingWhitespace) {
+            handler.trailingWhitespace(lineNo);
+        }
+
+        if (!lineBlank) {
+            consecutiveBlankLines = 0;
+        } else if (consecutiveBlankLines++ > 0) {
+            // The previous line was blank as well
+            handler.repeatedBlankLine(lineNo);
+        }
+
+        lineNo++;
+        startLine();
+    }
+
+    /**
+     * Receives the findings of a scan, in the order of the lines.
+     */
+    public interface Handler {
+
+        /**
+         * Called for the first tab of a line. No tab precedes it on the line, so its index
+         * is also its column without tab expansion.
+         *
+         * @param lineNo the line number, starting at 1
+         * @param charIndex the index of the tab within the line
+         */
+        default void tab(int lineNo, int charIndex) {
+            // No code by default
+        }
+
+        /**
+         * Called for a line that ends with whitespace.
+         *
+         * @param lineNo the line number, starting at 1
+         */
+        default void trailingWhitespace(int lineNo) {
+            // No code by default
+        }
+
+        /**
+         * Called for a blank line that follows another blank line.
+         *
+         * @param lineNo the line number, starting at 1
+         */
+        default void repeatedBlankLine(int lineNo) {
+            // No code by default
+        }
+    }
+}
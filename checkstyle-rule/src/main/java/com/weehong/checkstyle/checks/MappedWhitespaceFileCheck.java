@@ -0,0 +1,228 @@
+package com.weehong.checkstyle.checks;
+
+import com.weehong.checkstyle.WhitespaceScanner;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.Definitions;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Custom Checkstyle check that finds tabs, trailing whitespace and repeated blank lines in
+ * files above a size threshold.
+ *
+ * <p>Each file larger than {@code threshold} bytes is memory-mapped in fixed-size windows
+ * that are fed to a {@link WhitespaceScanner}, without reading the decoded file text. The
+ * violations are the ones FileTabCharacter, a {@code \s+$} RegexpSingleline and
+ * NoMultipleBlankLinesFileCheck would report, with the same messages, lines and columns,
+ * just like WhitespaceHygieneFileCheck. Smaller files are left to WhitespaceHygieneFileCheck;
+ * give its {@code maxFileSize} the same value so that no file is checked twice.
+ *
+ * <p>Checker decodes every file it processes into a {@code FileText} before any check runs,
+ * so configured in a plain Checker this check does not lower peak heap use. Runners bound
+ * the heap by leaving the files this check accepts ({@link #isLargeFile(File)}) out of
+ * Checker's file list, scanning them with {@link #scanLargeFile(File)} and firing the
+ * violations through Checker, as ParallelChecker in checkstyle-rule-runner does; those files
+ * are then seen by no other check.
+ *
+ * <p>The byte-level scan needs a charset in which line terminators, tabs and spaces are
+ * single ASCII bytes, such as UTF-8 or ISO-8859-1. With any other charset, every file
+ * above the threshold gets a single violation saying that it could not be scanned.
+ */
+@FileStatefulCheck
+public final class MappedWhitespaceFileCheck extends AbstractFileSetCheck {
+
+    private static final String MSG_CONTAINS_TAB = "Line contains a tab character.";
+
+    private static final String MSG_FILE_CONTAINS_TAB =
+        "File contains tab characters (this is the first instance).";
+
+    private static final String MSG_TRAILING_SPACES = "Line has trailing spaces.";
+
+    private static final String MSG_MULTIPLE_BLANK_LINES = "More than 1 consecutive blank line is not allowed.";
+
+    private static final String MSG_EXCEPTION = "general.exception";
+
+    private static final String MSG_UNSUPPORTED_CHARSET =
+        "File is larger than {0} bytes and cannot be scanned byte by byte in charset {1}.";
+
+    private static final byte[] ASCII_WHITESPACE = {'\t', '\n', '\r', ' '};
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Whether to report the first tab of each line instead of the first tab of the file.
+     */
+    private boolean eachLine;
+
+    /**
+     * Size in bytes above which a file is scanned by this check.
+     */
+    private long threshold = 16L * 1024 * 1024;
+
+    private Charset charset = StandardCharsets.UTF_8;
+
+    private boolean utf8;
+
+    /**
+     * Creates the check for files of any extension.
+     */
+    public MappedWhitespaceFileCheck() {
+        setFileExtensions();
+    }
+
+    /**
+     * Sets whether to report the first tab of each line instead of the first tab of the file.
+     *
+     * @param eachLine true to report every line that contains a tab
+     */
+    public void setEachLine(boolean eachLine) {
+        this.eachLine = eachLine;
+    }
+
+    /**
+     * Sets the size in bytes above which a file is scanned by this check.
+     *
+     * @param threshold the threshold
+     */
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void beginProcessing(String charsetName) {
+        super.beginProcessing(charsetName);
+        charset = Charset.forName(charsetName);
+        utf8 = StandardCharsets.UTF_8.equals(charset);
+    }
+
+    @Override
+    protected void processFiltered(File file, FileText fileText) {
+        if (file.length() > threshold) {
+            addViolations(scanLargeFile(file));
+        }
+    }
+
+    /**
+     * Checks whether a file is scanned by this check: it has one of the configured file
+     * extensions and is larger than the threshold.
+     *
+     * @param file the file
+     * @return true if the file is scanned by this check
+     */
+    public boolean isLargeFile(File file) {
+        return file.length() > threshold && CommonUtil.matchesFileExtension(file, getFileExtensions());
+    }
+
+    /**
+     * Scans a file straight from a memory-mapped buffer, without decoding it, so the heap
+     * used does not depend on the size of the file. Processing must have begun, so that the
+     * charset is known.
+     *
+     * @param file the file
+     * @return the violations of the file
+     */
+    public SortedSet<Violation> scanLargeFile(File file) {
+        if (!isByteScannable(charset)) {
+            SortedSet<Violation> violations = new TreeSet<>();
+            violations.add(new Violation(1, getMessageBundle(), MSG_UNSUPPORTED_CHARSET,
+                new Object[] {String.valueOf(threshold), charset.name()}, getSeverityLevel(), getId(),
+                getClass(), getCustomMessages().get(MSG_UNSUPPORTED_CHARSET)));
+            return violations;
+        }
+
+        return scan(file.toPath());
+    }
+
+    private SortedSet<Violation> scan(Path file) {
+        ViolationHandler handler = new ViolationHandler();
+        WhitespaceScanner scanner = new WhitespaceScanner(handler);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                scanner.accept(channel.map(
+                    FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position)), utf8);
+            }
+
+            scanner.finish();
+        } catch (IOException ex) {
+            handler.violations.add(new Violation(1, Definitions.CHECKSTYLE_BUNDLE, MSG_EXCEPTION,
+                new Object[] {ex.getMessage()}, null, getClass(), null));
+        }
+
+        return handler.violations;
+    }
+
+    private Violation createLineViolation(int lineNo, String key) {
+        return new Violation(lineNo, getMessageBundle(), key, null, getSeverityLevel(), getId(),
+            getClass(), getCustomMessages().get(key));
+    }
+
+    private Violation createTabViolation(int lineNo, int charIndex, String key) {
+        return new Violation(
+            lineNo,
+            charIndex + 1,
+            charIndex,
+            0,
+            getMessageBundle(),
+            key,
+            null,
+            getSeverityLevel(),
+            getId(),
+            getClass(),
+            getCustomMessages().get(key));
+    }
+
+    private static boolean isByteScannable(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+            || charset.newEncoder().maxBytesPerChar() == 1
+            && Arrays.equals(ASCII_WHITESPACE, new String(ASCII_WHITESPACE, StandardCharsets.US_ASCII)
+                .getBytes(charset));
+    }
+
+    /**
+     * Collects the findings of the scanner for one file. Violations are created directly,
+     * with the column of a tab taken from the scanner, so the decoded file text is never read.
+     */
+    private final class ViolationHandler implements WhitespaceScanner.Handler {
+
+        private final SortedSet<Violation> violations = new TreeSet<>();
+
+        private boolean fileHasTab;
+
+        @Override
+        public void tab(int lineNo, int charIndex) {
+            if (eachLine) {
+                violations.add(createTabViolation(lineNo, charIndex, MSG_CONTAINS_TAB));
+            } else if (!fileHasTab) {
+                violations.add(createTabViolation(lineNo, charIndex, MSG_FILE_CONTAINS_TAB));
+            }
+
+            fileHasTab = true;
+        }
+
+        @Override
+        public void trailingWhitespace(int lineNo) {
+            violations.add(createLineViolation(lineNo, MSG_TRAILING_SPACES));
+        }
+
+        @Override
+        public void repeatedBlankLine(int lineNo) {
+            violations.add(createLineViolation(lineNo, MSG_MULTIPLE_BLANK_LINES));
+        }
+    }
+}
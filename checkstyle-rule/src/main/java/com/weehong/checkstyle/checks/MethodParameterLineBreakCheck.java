@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -11,7 +12,8 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * <p>This check ensures that methods with more than 4 parameters have each parameter
  * on a separate line for improved readability.
  */
-public class MethodParameterLineBreakCheck extends AbstractCheck {
+@FileStatefulCheck
+public class MethodParameterLineBreakCheck extends AbstractCustomCheck {
 
     private static final String MSG_PARAMETERS_ON_SEPARATE_LINES =
         "Method with more than 4 parameters must have each parameter on a separate line.";
@@ -34,7 +36,12 @@ public class MethodParameterLineBreakCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
         DetailAST parameters = ast.findFirstToken(TokenTypes.PARAMETERS);
 
         if (parameters == null) {
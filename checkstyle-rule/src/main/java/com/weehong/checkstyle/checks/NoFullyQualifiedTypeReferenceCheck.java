@@ -0,0 +1,218 @@
+package com.weehong.checkstyle.checks;
+
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import java.util.Arrays;
+
+/**
+ * Custom Checkstyle check that prohibits fully qualified type references in code.
+ *
+ * <p>A reference is reported when its qualified name starts with one of the configured
+ * {@code packagePrefixes}, continues with at least one more package name, and then names a
+ * type, recognised by a segment that starts with an uppercase letter. So with the prefix
+ * {@code java}, {@code java.util.HashMap}, {@code java.util.Map.Entry} and
+ * {@code java.util.List.of()} are reported, while {@code java.util} is not. Package and
+ * import declarations and annotation names such as {@code @java.lang.Deprecated} are
+ * exempt, and comments and string literals are never looked at.
+ *
+ * <p>Each qualified name is a chain of DOT nodes, and only the outermost DOT of a chain
+ * does any work, so every file is handled in a single linear pass. Like the regular
+ * expressions this check replaces, a line is reported once however many names it contains,
+ * unless the message includes the name.
+ */
+@FileStatefulCheck
+public class NoFullyQualifiedTypeReferenceCheck extends AbstractCustomCheck {
+
+    private static final String MSG_FULLY_QUALIFIED_NAME =
+        "Avoid using fully qualified class name ''{0}''. Use import statements instead.";
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Package prefixes, each split into its names.
+     */
+    private String[][] packagePrefixes = {{"java"}};
+
+    /**
+     * Message pattern of the violations; {0} is replaced by the qualified name.
+     */
+    private String message = MSG_FULLY_QUALIFIED_NAME;
+
+    private String[] segments = new String[INITIAL_CAPACITY];
+
+    /**
+     * Sets the package prefixes whose types must be imported.
+     *
+     * @param prefixes the package prefixes, such as {@code java} or {@code org.springframework}
+     */
+    public void setPackagePrefixes(String... prefixes) {
+        packagePrefixes = new String[prefixes.length][];
+
+        for (int i = 0; i < prefixes.length; i++) {
+            packagePrefixes[i] = prefixes[i].split("\\.");
+        }
+    }
+
+    /**
+     * Sets the message pattern of the violations.
+     *
+     * @param message the message, in which {0} is replaced by the qualified name
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public int[] getDefaultTokens() {
+        return getRequiredTokens();
+    }
+
+    @Override
+    public int[] getAcceptableTokens() {
+        return getRequiredTokens();
+    }
+
+    @Override
+    public int[] getRequiredTokens() {
+        return new int[]{TokenTypes.DOT};
+    }
+
+    @Override
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
+        DetailAST parent = ast.getParent();
+
+        // Inner DOTs of a chain are handled with the outermost one
+        if (parent.getType() == TokenTypes.DOT && parent.getFirstChild() == ast
+            || isExempt(parent.getType())) {
+            return;
+        }
+
+        DetailAST start = segmentStart(ast);
+        int length = collectSegments(start, ast);
+
+        if (length > 0 && isFullyQualifiedType(length)) {
+            log(start.getLineNo(), message, String.join(".", Arrays.copyOf(segments, length)));
+        }
+    }
+
+    /**
+     * Declarations that must use qualified names, and the name of an annotation, which is
+     * always the DOT directly under ANNOTATION.
+     *
+     * @param parentType the type of the parent of the outermost DOT
+     * @return true if the chain is exempt
+     */
+    private static boolean isExempt(int parentType) {
+        return parentType == TokenTypes.PACKAGE_DEF
+            || parentType == TokenTypes.IMPORT
+            || parentType == TokenTypes.STATIC_IMPORT
+            || parentType == TokenTypes.ANNOTATION;
+    }
+
+    /**
+     * Collects the names of a DOT chain from left to right. The chain ends at the first
+     * part that is not a name, such as {@code .class} or {@code .this}.
+     *
+     * @param start the leftmost node of the chain
+     * @param chain the outermost DOT of the chain
+     * @return the number of names, or 0 if the chain does not start with a name
+     */
+    private int collectSegments(DetailAST start, DetailAST chain) {
+        if (start.getType() != TokenTypes.IDENT) {
+            return 0;
+        }
+
+        int length = 0;
+        segments[length++] = start.getText();
+
+        for (DetailAST dot = start.getParent(); ; dot = dot.getParent()) {
+            DetailAST name = nextIdent(dot.getFirstChild());
+
+            if (name == null) {
+                break;
+            }
+
+            if (length == segments.length) {
+                segments = Arrays.copyOf(segments, length * 2);
+            }
+
+            segments[length++] = name.getText();
+
+            if (dot == chain) {
+                break;
+            }
+        }
+
+        return length;
+    }
+
+    private boolean isFullyQualifiedType(int length) {
+        for (String[] prefix : packagePrefixes) {
+            if (startsWith(prefix, length)) {
+                // At least one package name must follow the prefix before the type
+                for (int i = prefix.length + 1; i < length; i++) {
+                    char first = segments[i].charAt(0);
+
+                    if (first >= 'A' && first <= 'Z') {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean startsWith(String[] prefix, int length) {
+        if (length <= prefix.length) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (!prefix[i].equals(segments[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static DetailAST segmentStart(DetailAST chain) {
+        DetailAST start = chain;
+
+        while (start.getType() == TokenTypes.DOT) {
+            start = start.getFirstChild();
+        }
+
+        return start;
+    }
+
+    /**
+     * Finds the name that follows the left operand of a DOT, skipping explicit type
+     * arguments as in {@code Collections.<String>emptyList()}.
+     *
+     * @param leftOperand the first child of the DOT
+     * @return the name, or null if the DOT does not select a name
+     */
+    private static DetailAST nextIdent(DetailAST leftOperand) {
+        DetailAST next = leftOperand.getNextSibling();
+
+        if (next != null && next.getType() == TokenTypes.TYPE_ARGUMENTS) {
+            next = next.getNextSibling();
+        }
+
+        if (next == null || next.getType() != TokenTypes.IDENT) {
+            return null;
+        }
+
+        return next;
+    }
+}
@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 
@@ -10,7 +11,8 @@ import com.puppycrawl.tools.checkstyle.api.FileContents;
  * <p>This check ensures that there are no multiple consecutive blank lines
  * in the source code, allowing a maximum of one blank line between code elements.
  */
-public class NoMultipleBlankLinesCheck extends AbstractCheck {
+@FileStatefulCheck
+public class NoMultipleBlankLinesCheck extends AbstractCustomCheck {
 
     private static final String MSG_MULTIPLE_BLANK_LINES =
         "More than 1 consecutive blank line is not allowed.";
@@ -31,7 +33,7 @@ public class NoMultipleBlankLinesCheck extends AbstractCheck {
     }
 
     @Override
-    public void beginTree(DetailAST rootAST) {
+    protected void onBeginTree(DetailAST rootAST) {
         final FileContents contents = getFileContents();
         final String[] lines = contents.getLines();
 
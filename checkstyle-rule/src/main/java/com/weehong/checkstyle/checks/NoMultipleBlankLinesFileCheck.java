@@ -1,5 +1,7 @@
 package com.weehong.checkstyle.checks;
 
+import com.weehong.checkstyle.WhitespaceScanner;
+import com.puppycrawl.tools.checkstyle.StatelessCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 
@@ -11,28 +13,34 @@ import java.io.File;
  *
  * <p>This check ensures that there are no multiple consecutive blank lines
  * in any source file, allowing a maximum of one blank line between content.
+ *
+ * <p>The file text is scanned in place by a {@link WhitespaceScanner}, so no line is copied
+ * or trimmed. Lines end at {@code \n}, {@code \r\n} or {@code \r}, and a line is blank when
+ * it contains only characters up to and including the space character, exactly as
+ * {@link String#trim()} would leave it empty.
+ *
+ * @deprecated WhitespaceHygieneFileCheck reports the same violations, together with tabs
+ *     and trailing whitespace, in the same pass; use it instead.
  */
+@Deprecated
+@StatelessCheck
 public class NoMultipleBlankLinesFileCheck extends AbstractFileSetCheck {
 
     private static final String MSG_MULTIPLE_BLANK_LINES = "More than 1 consecutive blank line is not allowed.";
 
     @Override
     protected void processFiltered(File file, FileText fileText) {
-        final String[] lines = fileText.toLinesArray();
-        int consecutiveBlankLines = 0;
-
-        for (int i = 0; i < lines.length; i++) {
-            final String line = lines[i];
+        new WhitespaceScanner(new BlankLineHandler()).scan(fileText.getFullText().toString());
+    }
 
-            if (line.trim().isEmpty()) {
-                consecutiveBlankLines++;
+    /**
+     * Logs every repeated blank line found by the scanner.
+     */
+    private final class BlankLineHandler implements WhitespaceScanner.Handler {
 
-                if (consecutiveBlankLines > 1) {
-                    log(i + 1, MSG_MULTIPLE_BLANK_LINES);
-                }
-            } else {
-                consecutiveBlankLines = 0;
-            }
+        @Override
+        public void repeatedBlankLine(int lineNo) {
+            log(lineNo, MSG_MULTIPLE_BLANK_LINES);
         }
     }
 }
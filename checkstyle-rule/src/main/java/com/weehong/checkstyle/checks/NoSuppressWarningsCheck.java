@@ -1,6 +1,8 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.weehong.checkstyle.AnnotationClassifier;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -11,7 +13,8 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * suppressing compiler warnings. Instead, the root cause of the warning
  * should be addressed.
  */
-public class NoSuppressWarningsCheck extends AbstractCheck {
+@FileStatefulCheck
+public class NoSuppressWarningsCheck extends AbstractCustomCheck {
 
     private static final String MSG_KEY = "Avoid using @SuppressWarnings annotation. "
         + "Fix the underlying issue instead of suppressing the warning.";
@@ -32,10 +35,13 @@ public class NoSuppressWarningsCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
-        DetailAST identifierAst = ast.findFirstToken(TokenTypes.IDENT);
+    protected boolean isLineLocal() {
+        return true;
+    }
 
-        if (identifierAst != null && "SuppressWarnings".equals(identifierAst.getText())) {
+    @Override
+    protected void onVisitToken(DetailAST ast) {
+        if ((getFacts().getAnnotationKinds(ast) & AnnotationClassifier.SUPPRESS_WARNINGS) != 0) {
             log(ast, MSG_KEY);
         }
     }
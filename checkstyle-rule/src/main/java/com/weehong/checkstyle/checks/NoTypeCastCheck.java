@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -11,7 +12,8 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * a design issue. This check encourages the use of proper generics, polymorphism,
  * or pattern matching instead of explicit type casts.
  */
-public class NoTypeCastCheck extends AbstractCheck {
+@FileStatefulCheck
+public class NoTypeCastCheck extends AbstractCustomCheck {
 
     private static final String MSG_KEY = "Avoid using type casting. "
         + "Consider using generics, polymorphism, or instanceof pattern matching instead.";
@@ -32,7 +34,12 @@ public class NoTypeCastCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
         log(ast, MSG_KEY);
     }
 }
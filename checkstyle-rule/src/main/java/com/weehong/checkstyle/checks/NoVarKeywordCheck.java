@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -23,7 +24,8 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * int count = 10; // correct
  * </pre>
  */
-public class NoVarKeywordCheck extends AbstractCheck {
+@FileStatefulCheck
+public class NoVarKeywordCheck extends AbstractCustomCheck {
 
     private static final String MSG_VAR_NOT_ALLOWED =
         "Use of ''var'' keyword is not allowed. Concrete data type must be explicitly declared.";
@@ -44,7 +46,12 @@ public class NoVarKeywordCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
         final DetailAST typeAST = ast.findFirstToken(TokenTypes.TYPE);
 
         if (typeAST == null) {
@@ -1,14 +1,11 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.StatelessCheck;
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.weehong.checkstyle.AnnotationClassifier;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Checkstyle check that enforces OpenAPI/Swagger annotations to have each property
  * on a separate line when the annotation has more than a configurable threshold
@@ -48,8 +45,8 @@ import java.util.Set;
  *
  * @since 1.0
  */
-@StatelessCheck
-public class SwaggerAnnotationLineBreakCheck extends AbstractCheck {
+@FileStatefulCheck
+public class SwaggerAnnotationLineBreakCheck extends AbstractCustomCheck {
 
     private static final String MSG_PROPERTIES_ON_SEPARATE_LINES =
         "Swagger annotation @%s with more than %d properties must have each property on a separate line.";
@@ -57,22 +54,6 @@ public class SwaggerAnnotationLineBreakCheck extends AbstractCheck {
     private static final String MSG_OPENING_PAREN_SAME_LINE =
         "Swagger annotation @%s opening parenthesis should be on the same line as the annotation name.";
 
-    /**
-     * Set of Swagger/OpenAPI annotations to check.
-     */
-    private static final Set<String> SWAGGER_ANNOTATIONS = new HashSet<>(Arrays.asList(
-        "Schema",
-        "Operation",
-        "ApiResponse",
-        "ApiResponses",
-        "Parameter",
-        "RequestBody",
-        "Header",
-        "Content",
-        "ExampleObject",
-        "ArraySchema"
-    ));
-
     /**
      * Maximum number of properties allowed on the same line.
      * Default is 2.
@@ -104,10 +85,13 @@ public class SwaggerAnnotationLineBreakCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
-        String annotationName = getAnnotationName(ast);
+    protected boolean isLineLocal() {
+        return true;
+    }
 
-        if (annotationName == null || !SWAGGER_ANNOTATIONS.contains(annotationName)) {
+    @Override
+    protected void onVisitToken(DetailAST ast) {
+        if ((getFacts().getAnnotationKinds(ast) & AnnotationClassifier.SWAGGER) == 0) {
             return;
         }
 
@@ -118,64 +102,9 @@ public class SwaggerAnnotationLineBreakCheck extends AbstractCheck {
         }
 
         if (!arePropertiesOnSeparateLines(ast)) {
-            log(ast, String.format(MSG_PROPERTIES_ON_SEPARATE_LINES, annotationName, maxPropertiesSameLine));
-        }
-    }
-
-    /**
-     * Extracts the annotation name from the annotation AST node.
-     *
-     * @param annotationAst the ANNOTATION token
-     * @return the simple name of the annotation, or null if it cannot be determined
-     */
-    private String getAnnotationName(DetailAST annotationAst) {
-        DetailAST atSign = annotationAst.findFirstToken(TokenTypes.AT);
-
-        if (atSign == null) {
-            return null;
-        }
-
-        DetailAST nameNode = atSign.getNextSibling();
-
-        if (nameNode == null) {
-            return null;
+            log(ast, String.format(MSG_PROPERTIES_ON_SEPARATE_LINES, getFacts().getAnnotationName(ast),
+                maxPropertiesSameLine));
         }
-
-        if (nameNode.getType() == TokenTypes.IDENT) {
-            return nameNode.getText();
-        }
-
-        if (nameNode.getType() == TokenTypes.DOT) {
-            return getSimpleNameFromDot(nameNode);
-        }
-
-        return null;
-    }
-
-    /**
-     * Extracts the simple name from a DOT node (qualified name).
-     *
-     * @param dotNode the DOT token
-     * @return the simple name (rightmost identifier)
-     */
-    private String getSimpleNameFromDot(DetailAST dotNode) {
-        DetailAST current = dotNode;
-
-        while (current != null) {
-            DetailAST right = current.getLastChild();
-
-            if (right != null && right.getType() == TokenTypes.IDENT) {
-                return right.getText();
-            }
-
-            if (right != null && right.getType() == TokenTypes.DOT) {
-                current = right;
-            } else {
-                break;
-            }
-        }
-
-        return null;
     }
 
     /**
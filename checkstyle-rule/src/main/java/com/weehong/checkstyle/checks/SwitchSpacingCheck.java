@@ -1,12 +1,10 @@
 package com.weehong.checkstyle.checks;
 
 import com.weehong.checkstyle.AbstractStatementSpacingCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Custom Checkstyle check that enforces blank line spacing around and within switch statements.
  *
@@ -17,7 +15,15 @@ import java.util.List;
  *   <li>Middle case groups have blank lines before and after them</li>
  *   <li>The last case group (including default) has a blank line before it</li>
  * </ul>
+ *
+ * <p>Arrow-style rules are treated like case groups, and switch expressions get the same
+ * case spacing. A switch expression is part of a larger statement, so it is not checked
+ * for blank lines around itself.
+ *
+ * <p>The case groups are checked in a single forward pass over the children of the
+ * switch, so even switches with thousands of cases take linear time.
  */
+@FileStatefulCheck
 public class SwitchSpacingCheck extends AbstractStatementSpacingCheck {
 
     private static final String MSG_TEMPLATE_BEFORE =
@@ -51,129 +57,68 @@ public class SwitchSpacingCheck extends AbstractStatementSpacingCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
-        super.visitToken(ast);
-
-        if (ast.getType() == TokenTypes.LITERAL_SWITCH) {
-            checkCaseGroupSpacing(ast);
-        }
-    }
-
-    private void checkCaseGroupSpacing(DetailAST switchAst) {
-        // CASE_GROUP nodes are direct children of LITERAL_SWITCH
-        DetailAST[] caseGroups = getCaseGroups(switchAst);
-
-        if (caseGroups.length == 0) {
-            return;
-        }
-
-        for (int i = 0; i < caseGroups.length; i++) {
-            DetailAST caseGroup = caseGroups[i];
-            boolean isFirst = i == 0;
-            boolean isLast = i == caseGroups.length - 1;
-
-            if (isFirst) {
-                checkFirstCaseGroup(caseGroup, caseGroups.length > 1);
-            } else if (isLast) {
-                checkLastCaseGroup(caseGroup);
-            } else {
-                checkMiddleCaseGroup(caseGroup);
+    protected boolean shouldCheckSpacing(DetailAST ast) {
+        // A switch expression sits below an EXPR node before its enclosing block
+        for (DetailAST parent = ast.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.getType() == TokenTypes.SLIST) {
+                return true;
             }
-        }
-    }
-
-    private DetailAST[] getCaseGroups(DetailAST slist) {
-        List<DetailAST> groups = new ArrayList<>();
-        DetailAST child = slist.getFirstChild();
 
-        while (child != null) {
-            if (child.getType() == TokenTypes.CASE_GROUP) {
-                groups.add(child);
+            if (parent.getType() == TokenTypes.EXPR) {
+                return false;
             }
-
-            child = child.getNextSibling();
-        }
-
-        return groups.toArray(new DetailAST[0]);
-    }
-
-    private void checkFirstCaseGroup(DetailAST caseGroup, boolean hasMoreGroups) {
-        if (!hasMoreGroups) {
-            return;
         }
 
-        DetailAST lastStatement = getLastStatementInCaseGroup(caseGroup);
-
-        if (lastStatement == null) {
-            return;
-        }
-
-        DetailAST nextGroup = getNextCaseGroup(caseGroup);
-
-        if (nextGroup != null) {
-            int lastLine = getLastLineOfNode(lastStatement);
-            int nextLine = nextGroup.getLineNo();
-            int blankLines = nextLine - lastLine - 1;
-
-            if (blankLines < 1) {
-                log(lastStatement, MSG_CASE_AFTER);
-            }
-        }
+        return true;
     }
 
-    private void checkLastCaseGroup(DetailAST caseGroup) {
-        DetailAST previousGroup = getPreviousCaseGroup(caseGroup);
-
-        if (previousGroup == null) {
-            return;
-        }
-
-        DetailAST lastStatementPrev = getLastStatementInCaseGroup(previousGroup);
-
-        if (lastStatementPrev == null) {
-            return;
-        }
-
-        int lastLine = getLastLineOfNode(lastStatementPrev);
-        int currentLine = caseGroup.getLineNo();
-        int blankLines = currentLine - lastLine - 1;
+    @Override
+    protected void onVisitToken(DetailAST ast) {
+        super.onVisitToken(ast);
 
-        if (blankLines < 1) {
-            log(caseGroup, MSG_CASE_BEFORE);
+        if (ast.getType() == TokenTypes.LITERAL_SWITCH) {
+            checkCaseGroupSpacing(ast);
         }
     }
 
-    private void checkMiddleCaseGroup(DetailAST caseGroup) {
-        DetailAST previousGroup = getPreviousCaseGroup(caseGroup);
-
-        if (previousGroup != null) {
-            DetailAST lastStatementPrev = getLastStatementInCaseGroup(previousGroup);
+    /**
+     * Checks the spacing between consecutive case groups, or arrow-style rules, in one pass.
+     * Only the previous group's last statement and its end line are carried forward.
+     *
+     * @param switchAst the LITERAL_SWITCH node
+     */
+    private void checkCaseGroupSpacing(DetailAST switchAst) {
+        int groupCount = 0;
+        DetailAST previousStatement = null;
+        int previousEndLine = 0;
 
-            if (lastStatementPrev != null) {
-                int lastLine = getLastLineOfNode(lastStatementPrev);
-                int currentLine = caseGroup.getLineNo();
-                int blankLines = currentLine - lastLine - 1;
+        for (DetailAST child = switchAst.getFirstChild(); child != null; child = child.getNextSibling()) {
+            int type = child.getType();
 
-                if (blankLines < 1) {
-                    log(caseGroup, MSG_CASE_BEFORE);
-                }
+            if (type != TokenTypes.CASE_GROUP && type != TokenTypes.SWITCH_RULE) {
+                continue;
             }
-        }
 
-        DetailAST lastStatement = getLastStatementInCaseGroup(caseGroup);
-
-        if (lastStatement != null) {
-            DetailAST nextGroup = getNextCaseGroup(caseGroup);
+            if (previousStatement != null && child.getLineNo() - previousEndLine - 1 < 1) {
+                String message = groupCount == 1
+                    ? MSG_CASE_AFTER
+                    : MSG_CASE_MIDDLE_AFTER;
+                log(previousStatement, message);
+                log(child, MSG_CASE_BEFORE);
+            }
 
-            if (nextGroup != null) {
-                int lastLine = getLastLineOfNode(lastStatement);
-                int nextLine = nextGroup.getLineNo();
-                int blankLines = nextLine - lastLine - 1;
+            groupCount++;
 
-                if (blankLines < 1) {
-                    log(lastStatement, MSG_CASE_MIDDLE_AFTER);
-                }
+            if (type == TokenTypes.CASE_GROUP) {
+                previousStatement = getLastStatementInCaseGroup(child);
+            } else {
+                previousStatement = getSwitchRuleBody(child);
             }
+
+            // A rule ends with its semicolon or closing brace; a case group with its last statement
+            previousEndLine = previousStatement == null || type == TokenTypes.SWITCH_RULE
+                ? getLastLineOfNode(child)
+                : getLastLineOfNode(previousStatement);
         }
     }
 
@@ -197,31 +142,19 @@ public class SwitchSpacingCheck extends AbstractStatementSpacingCheck {
         return lastChild;
     }
 
-    private DetailAST getNextCaseGroup(DetailAST caseGroup) {
-        DetailAST sibling = caseGroup.getNextSibling();
-
-        while (sibling != null) {
-            if (sibling.getType() == TokenTypes.CASE_GROUP) {
-                return sibling;
-            }
-
-            sibling = sibling.getNextSibling();
-        }
-
-        return null;
-    }
-
-    private DetailAST getPreviousCaseGroup(DetailAST caseGroup) {
-        DetailAST sibling = caseGroup.getPreviousSibling();
-
-        while (sibling != null) {
-            if (sibling.getType() == TokenTypes.CASE_GROUP) {
-                return sibling;
-            }
-
-            sibling = sibling.getPreviousSibling();
+    /**
+     * Gets the body of an arrow-style rule: its block, expression or throw statement.
+     *
+     * @param switchRule the SWITCH_RULE node
+     * @return the body of the rule
+     */
+    private DetailAST getSwitchRuleBody(DetailAST switchRule) {
+        DetailAST body = switchRule.getLastChild();
+
+        if (body.getType() == TokenTypes.SEMI) {
+            body = body.getPreviousSibling();
         }
 
-        return null;
+        return body;
     }
 }
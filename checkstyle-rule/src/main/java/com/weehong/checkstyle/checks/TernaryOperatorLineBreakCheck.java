@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -25,7 +26,8 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * UUID activityUuid = venue.getActivity() != null ? venue.getActivity().getUuid() : null;
  * </pre>
  */
-public class TernaryOperatorLineBreakCheck extends AbstractCheck {
+@FileStatefulCheck
+public class TernaryOperatorLineBreakCheck extends AbstractCustomCheck {
 
     private static final String MSG_QUESTION_MARK_NEW_LINE =
         "Ternary operator '?' must be at the beginning of a new line.";
@@ -49,7 +51,12 @@ public class TernaryOperatorLineBreakCheck extends AbstractCheck {
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected boolean isLineLocal() {
+        return true;
+    }
+
+    @Override
+    protected void onVisitToken(DetailAST ast) {
         DetailAST parent = ast.getParent();
 
         if (parent == null) {
@@ -112,20 +119,7 @@ public class TernaryOperatorLineBreakCheck extends AbstractCheck {
     }
 
     private int getLastLineOfExpression(DetailAST ast) {
-        int lastLine = ast.getLineNo();
-        DetailAST child = ast.getFirstChild();
-
-        while (child != null) {
-            int childLastLine = getLastLineOfExpression(child);
-
-            if (childLastLine > lastLine) {
-                lastLine = childLastLine;
-            }
-
-            child = child.getNextSibling();
-        }
-
-        return lastLine;
+        return getFacts().getLastLine(ast);
     }
 
 }
@@ -1,12 +1,15 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -17,7 +20,8 @@ import java.util.Set;
  * It tracks both regular imports and static imports, and provides detailed reporting
  * about which imports are unused.
  */
-public class UnusedImportCheck extends AbstractCheck {
+@FileStatefulCheck
+public class UnusedImportCheck extends AbstractCustomCheck {
 
     private static final String MSG_UNUSED_IMPORT =
         "Unused import - ''{0}''.";
@@ -27,8 +31,18 @@ public class UnusedImportCheck extends AbstractCheck {
 
     private final Map<String, DetailAST> imports = new HashMap<>();
     private final Set<String> referenced = new HashSet<>();
-    private final Set<String> staticImports = new HashSet<>();
-    private final Map<String, Set<String>> simpleNameToQualified = new HashMap<>();
+
+    /**
+     * Imports indexed by their last name segment: the simple class name for type imports
+     * and the member name for static imports.
+     */
+    private final Map<String, List<String>> importsBySimpleName = new HashMap<>();
+
+    /**
+     * Whether the walk is currently inside an import statement.
+     * Imports never nest, so a flag set on entry and cleared on exit is enough.
+     */
+    private boolean inImport;
 
     @Override
     public int[] getDefaultTokens() {
@@ -45,49 +59,49 @@ public class UnusedImportCheck extends AbstractCheck {
         return new int[]{
             TokenTypes.IMPORT,
             TokenTypes.STATIC_IMPORT,
-            TokenTypes.IDENT,
-            TokenTypes.DOT
+            TokenTypes.IDENT
         };
     }
 
     @Override
-    public void beginTree(DetailAST rootAST) {
+    protected void onBeginTree(DetailAST rootAST) {
         imports.clear();
         referenced.clear();
-        staticImports.clear();
-        simpleNameToQualified.clear();
+        importsBySimpleName.clear();
+        inImport = false;
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected void onVisitToken(DetailAST ast) {
         switch (ast.getType()) {
             case TokenTypes.IMPORT:
-                processImport(ast, false);
-                break;
-
             case TokenTypes.STATIC_IMPORT:
-                processImport(ast, true);
+                inImport = true;
+                processImport(ast);
                 break;
 
             case TokenTypes.IDENT:
                 processIdent(ast);
                 break;
 
-            case TokenTypes.DOT:
-                processDot(ast);
-                break;
-
             default:
                 break;
         }
     }
 
     @Override
-    public void finishTree(DetailAST rootAST) {
+    protected void onLeaveToken(DetailAST ast) {
+        if (ast.getType() == TokenTypes.IMPORT || ast.getType() == TokenTypes.STATIC_IMPORT) {
+            inImport = false;
+        }
+    }
+
+    @Override
+    protected void onFinishTree(DetailAST rootAST) {
         checkUnusedImports();
     }
 
-    private void processImport(DetailAST importAST, boolean isStatic) {
+    private void processImport(DetailAST importAST) {
         DetailAST dotAST = importAST.findFirstToken(TokenTypes.DOT);
 
         if (dotAST == null) {
@@ -111,58 +125,28 @@ public class UnusedImportCheck extends AbstractCheck {
         } else {
             imports.put(fullName, importAST);
 
-            if (isStatic) {
-                staticImports.add(fullName);
-            }
+            String simpleName = fullName.substring(fullName.lastIndexOf('.') + 1);
+            importsBySimpleName.computeIfAbsent(simpleName, k -> new ArrayList<>(1)).add(fullName);
         }
     }
 
+    /**
+     * Marks every import whose last name segment matches the identifier as referenced.
+     * Qualified references such as {@code Map.Entry} need no separate handling: any import
+     * they could match ends with one of their identifiers, which is visited here as well.
+     *
+     * @param ident the IDENT token
+     */
     private void processIdent(DetailAST ident) {
-        if (isInImportStatement(ident)) {
+        if (inImport) {
             return;
         }
 
-        String identText = ident.getText();
-        referenced.add(identText);
+        List<String> matchingImports = importsBySimpleName.get(ident.getText());
 
-        checkImportMatch(identText);
-    }
-
-    private void processDot(DetailAST dot) {
-        if (isInImportStatement(dot)) {
-            return;
-        }
-
-        FullIdent fullIdent = FullIdent.createFullIdent(dot);
-
-        if (fullIdent != null) {
-            String fullName = fullIdent.getText();
-            referenced.add(fullName);
-
-            int lastDot = fullName.lastIndexOf('.');
-            if (lastDot > 0) {
-                String simpleName = fullName.substring(lastDot + 1);
-                simpleNameToQualified.computeIfAbsent(simpleName, k -> new HashSet<>()).add(fullName);
-            }
-        }
-    }
-
-    private void checkImportMatch(String identText) {
-        for (String importName : imports.keySet()) {
-            if (importName.endsWith("." + identText)) {
-                referenced.add(importName);
-            }
-
-            if (staticImports.contains(importName)) {
-                int lastDot = importName.lastIndexOf('.');
-
-                if (lastDot > 0) {
-                    String staticMember = importName.substring(lastDot + 1);
-
-                    if (staticMember.equals(identText)) {
-                        referenced.add(importName);
-                    }
-                }
+        if (matchingImports != null) {
+            for (int i = 0; i < matchingImports.size(); i++) {
+                referenced.add(matchingImports.get(i));
             }
         }
     }
@@ -172,48 +156,9 @@ public class UnusedImportCheck extends AbstractCheck {
             String importName = entry.getKey();
             DetailAST importAST = entry.getValue();
 
-            if (!isImportUsed(importName)) {
+            if (!referenced.contains(importName)) {
                 log(importAST, MSG_UNUSED_IMPORT, importName);
             }
         }
     }
-
-    private boolean isImportUsed(String importName) {
-        if (referenced.contains(importName)) {
-            return true;
-        }
-
-        int lastDot = importName.lastIndexOf('.');
-
-        if (lastDot > 0) {
-            String className = importName.substring(lastDot + 1);
-
-            if (referenced.contains(className)) {
-                return true;
-            }
-
-            Set<String> qualifiedNames = simpleNameToQualified.get(className);
-            if (qualifiedNames != null && qualifiedNames.contains(importName)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
-    private boolean isInImportStatement(DetailAST ast) {
-        DetailAST parent = ast.getParent();
-
-        while (parent != null) {
-            int type = parent.getType();
-
-            if (type == TokenTypes.IMPORT || type == TokenTypes.STATIC_IMPORT) {
-                return true;
-            }
-
-            parent = parent.getParent();
-        }
-
-        return false;
-    }
 }
@@ -1,14 +1,18 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.weehong.checkstyle.AnnotationClassifier;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Custom Checkstyle check that detects unused private methods.
@@ -16,14 +20,30 @@ import java.util.Set;
  * <p>This check identifies private methods that are declared but never invoked
  * within the class. It excludes common framework methods and special cases like
  * main methods, serialization methods, and methods annotated with framework annotations.
+ *
+ * <p>Private methods are tracked per enclosing type body, keyed by name and number of
+ * parameters, so same-named methods of different nested classes are told apart. Calls are
+ * matched by name and argument count: an unqualified call reaches the private methods of
+ * its own type and the types enclosing it, while a qualified call or method reference,
+ * whose receiver type is unknown without type resolution, reaches those of any type in the
+ * file. Calls are resolved when the file is finished, since a method may be called before
+ * it is declared. The signature shown in a violation is only built for methods that are
+ * reported.
  */
-public class UnusedMethodCheck extends AbstractCheck {
+@FileStatefulCheck
+public class UnusedMethodCheck extends AbstractCustomCheck {
 
     private static final String MSG_UNUSED_PRIVATE_METHOD = "Private method ''{0}'' is declared but never used.";
 
-    private final Map<String, Set<String>> declaredPrivateMethods = new HashMap<>();
-    private final Map<String, DetailAST> signatureToMethodDef = new HashMap<>();
-    private final Set<String> invokedSignatures = new HashSet<>();
+    /**
+     * The highest arity bit, which stands for every call with this many arguments or more.
+     */
+    private static final int MAX_ARITY = Long.SIZE - 1;
+
+    private static final long ANY_ARITY = -1L;
+
+    private final Map<DetailAST, TypeScope> typeScopes = new IdentityHashMap<>();
+    private final Map<String, long[]> qualifiedCalls = new HashMap<>();
 
     @Override
     public int[] getDefaultTokens() {
@@ -41,14 +61,13 @@ public class UnusedMethodCheck extends AbstractCheck {
     }
 
     @Override
-    public void beginTree(DetailAST rootAST) {
-        declaredPrivateMethods.clear();
-        signatureToMethodDef.clear();
-        invokedSignatures.clear();
+    protected void onBeginTree(DetailAST rootAST) {
+        typeScopes.clear();
+        qualifiedCalls.clear();
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected void onVisitToken(DetailAST ast) {
         if (ast.getType() == TokenTypes.METHOD_DEF) {
             processMethodDefinition(ast);
         } else if (ast.getType() == TokenTypes.METHOD_CALL) {
@@ -59,8 +78,12 @@ public class UnusedMethodCheck extends AbstractCheck {
     }
 
     @Override
-    public void finishTree(DetailAST rootAST) {
+    protected void onFinishTree(DetailAST rootAST) {
         checkUnusedMethods();
+
+        // Do not keep the tree reachable until the next file
+        typeScopes.clear();
+        qualifiedCalls.clear();
     }
 
     private void processMethodDefinition(DetailAST methodDef) {
@@ -78,14 +101,10 @@ public class UnusedMethodCheck extends AbstractCheck {
 
         DetailAST methodNameAST = methodDef.findFirstToken(TokenTypes.IDENT);
 
-        if (methodNameAST != null) {
-            String methodName = methodNameAST.getText();
-            String signature = buildMethodSignature(methodDef, methodName);
+        DetailAST typeBody = getEnclosingTypeBody(methodDef);
 
-            declaredPrivateMethods
-                    .computeIfAbsent(methodName, k -> new HashSet<>())
-                    .add(signature);
-            signatureToMethodDef.put(signature, methodDef);
+        if (methodNameAST != null && typeBody != null) {
+            getTypeScope(typeBody).addPrivateMethod(methodNameAST.getText(), new PrivateMethod(methodDef));
         }
     }
 
@@ -96,7 +115,7 @@ public class UnusedMethodCheck extends AbstractCheck {
             String methodName = getMethodName(methodNameAST);
 
             if (methodName != null) {
-                markMethodAsUsed(methodName);
+                recordCall(methodCall, methodName, getArityBit(methodCall));
             }
         }
     }
@@ -106,14 +125,14 @@ public class UnusedMethodCheck extends AbstractCheck {
 
         if (ident != null) {
             String methodName = ident.getText();
-            markMethodAsUsed(methodName);
+            recordCall(null, methodName, ANY_ARITY);
         } else {
             DetailAST dot = methodRef.findFirstToken(TokenTypes.DOT);
             if (dot != null) {
                 DetailAST lastChild = dot.getLastChild();
                 if (lastChild != null && lastChild.getType() == TokenTypes.IDENT) {
                     String methodName = lastChild.getText();
-                    markMethodAsUsed(methodName);
+                    recordCall(null, methodName, ANY_ARITY);
                 }
             }
         }
@@ -133,16 +152,76 @@ public class UnusedMethodCheck extends AbstractCheck {
         return null;
     }
 
-    private void markMethodAsUsed(String methodName) {
-        // Mark all signatures with this method name as used
-        // Without full type resolution, we cannot determine which specific overload
-        // is being called, so we mark all overloads as used
-        Set<String> signatures = declaredPrivateMethods.get(methodName);
-        if (signatures != null) {
-            invokedSignatures.addAll(signatures);
+    /**
+     * Records a call, to be matched against the private methods when the file is finished.
+     *
+     * @param methodCall the METHOD_CALL node, or null for a method reference
+     * @param methodName the name of the called method
+     * @param arities the argument count as an arity bit, or {@link #ANY_ARITY}
+     */
+    private void recordCall(DetailAST methodCall, String methodName, long arities) {
+        DetailAST typeBody = methodCall == null || isQualified(methodCall)
+            ? null
+            : getEnclosingTypeBody(methodCall);
+        Map<String, long[]> calls = typeBody == null
+            ? qualifiedCalls
+            : getTypeScope(typeBody).getCalls();
+
+        calls.computeIfAbsent(methodName, name -> new long[1])[0] |= arities;
+    }
+
+    private static boolean isQualified(DetailAST methodCall) {
+        DetailAST name = methodCall.getFirstChild();
+
+        // this.method() calls a method of the innermost type like an unqualified call
+        return name.getType() == TokenTypes.DOT
+            && name.getFirstChild().getType() != TokenTypes.LITERAL_THIS;
+    }
+
+    private static long getArityBit(DetailAST methodCall) {
+        DetailAST arguments = methodCall.findFirstToken(TokenTypes.ELIST);
+        int count = 0;
+
+        if (arguments != null) {
+            for (DetailAST child = arguments.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getType() != TokenTypes.COMMA) {
+                    count++;
+                }
+            }
         }
-        // Also add the plain method name for methods that might be external
-        invokedSignatures.add(methodName);
+
+        return 1L << Math.min(count, MAX_ARITY);
+    }
+
+    /**
+     * Gets the body of the class, interface, enum, record or anonymous class a node is in.
+     *
+     * @param ast the node
+     * @return the enclosing OBJBLOCK, or null if there is none
+     */
+    private static DetailAST getEnclosingTypeBody(DetailAST ast) {
+        DetailAST parent = ast.getParent();
+
+        while (parent != null && parent.getType() != TokenTypes.OBJBLOCK) {
+            parent = parent.getParent();
+        }
+
+        return parent;
+    }
+
+    private TypeScope getTypeScope(DetailAST typeBody) {
+        TypeScope scope = typeScopes.get(typeBody);
+
+        if (scope == null) {
+            DetailAST outerBody = getEnclosingTypeBody(typeBody);
+            TypeScope outer = outerBody == null
+                ? null
+                : getTypeScope(outerBody);
+            scope = new TypeScope(outer);
+            typeScopes.put(typeBody, scope);
+        }
+
+        return scope;
     }
 
     private String buildMethodSignature(DetailAST methodDef, String methodName) {
@@ -293,28 +372,42 @@ public class UnusedMethodCheck extends AbstractCheck {
     }
 
     private void checkUnusedMethods() {
-        for (Map.Entry<String, Set<String>> entry : declaredPrivateMethods.entrySet()) {
-            Set<String> signatures = entry.getValue();
-
-            for (String signature : signatures) {
-                if (!invokedSignatures.contains(signature)) {
-                    DetailAST methodAST = signatureToMethodDef.get(signature);
-                    if (methodAST != null) {
-                        log(methodAST, MSG_UNUSED_PRIVATE_METHOD, signature);
-                    }
+        for (TypeScope scope : typeScopes.values()) {
+            if (scope.calls == null) {
+                continue;
+            }
+
+            for (Map.Entry<String, long[]> call : scope.calls.entrySet()) {
+                for (TypeScope target = scope; target != null; target = target.outer) {
+                    target.markUsed(call.getKey(), call.getValue()[0]);
                 }
             }
         }
-    }
 
-    private boolean isPrivateMethod(DetailAST methodDef) {
-        DetailAST modifiers = methodDef.findFirstToken(TokenTypes.MODIFIERS);
+        for (Map.Entry<String, long[]> call : qualifiedCalls.entrySet()) {
+            for (TypeScope target : typeScopes.values()) {
+                target.markUsed(call.getKey(), call.getValue()[0]);
+            }
+        }
 
-        if (modifiers == null) {
-            return false;
+        for (TypeScope scope : typeScopes.values()) {
+            if (scope.privateMethods == null) {
+                continue;
+            }
+
+            for (Map.Entry<String, List<PrivateMethod>> entry : scope.privateMethods.entrySet()) {
+                for (PrivateMethod method : entry.getValue()) {
+                    if (!method.used) {
+                        log(method.methodDef, MSG_UNUSED_PRIVATE_METHOD,
+                            buildMethodSignature(method.methodDef, entry.getKey()));
+                    }
+                }
+            }
         }
+    }
 
-        return modifiers.findFirstToken(TokenTypes.LITERAL_PRIVATE) != null;
+    private boolean isPrivateMethod(DetailAST methodDef) {
+        return Modifier.isPrivate(getFacts().getModifiers(methodDef));
     }
 
     private boolean isSpecialMethod(DetailAST methodDef) {
@@ -324,8 +417,16 @@ public class UnusedMethodCheck extends AbstractCheck {
             return false;
         }
 
-        String methodName = methodNameAST.getText();
+        return isSpecialMethod(methodNameAST.getText());
+    }
 
+    /**
+     * Checks if a method is invoked by the runtime or a test framework rather than by code.
+     *
+     * @param methodName the method name
+     * @return true for main, serialization, set-up and tear-down methods
+     */
+    static boolean isSpecialMethod(String methodName) {
         return "main".equals(methodName)
                 || "writeObject".equals(methodName)
                 || "readObject".equals(methodName)
@@ -337,51 +438,101 @@ public class UnusedMethodCheck extends AbstractCheck {
     }
 
     private boolean hasFrameworkAnnotation(DetailAST methodDef) {
-        DetailAST modifiers = methodDef.findFirstToken(TokenTypes.MODIFIERS);
+        return (getFacts().getAnnotationKinds(methodDef) & AnnotationClassifier.FRAMEWORK_ENTRY_POINT) != 0;
+    }
 
-        if (modifiers == null) {
-            return false;
+    /**
+     * The private methods declared directly in one type body, and the unqualified calls
+     * made from it. Both maps are only created once they get an entry.
+     */
+    private static final class TypeScope {
+
+        private final TypeScope outer;
+
+        private Map<String, List<PrivateMethod>> privateMethods;
+
+        private Map<String, long[]> calls;
+
+        private TypeScope(TypeScope outer) {
+            this.outer = outer;
+        }
+
+        private void addPrivateMethod(String name, PrivateMethod method) {
+            if (privateMethods == null) {
+                privateMethods = new HashMap<>();
+            }
+
+            privateMethods.computeIfAbsent(name, key -> new ArrayList<>(1)).add(method);
         }
 
-        DetailAST annotation = modifiers.findFirstToken(TokenTypes.ANNOTATION);
+        private Map<String, long[]> getCalls() {
+            if (calls == null) {
+                calls = new HashMap<>();
+            }
+
+            return calls;
+        }
 
-        while (annotation != null) {
-            DetailAST annotationIdent = annotation.findFirstToken(TokenTypes.IDENT);
+        private void markUsed(String name, long arities) {
+            List<PrivateMethod> methods = privateMethods == null
+                ? null
+                : privateMethods.get(name);
 
-            if (annotationIdent != null) {
-                String annotationName = annotationIdent.getText();
+            if (methods == null) {
+                return;
+            }
 
-                if (isFrameworkAnnotation(annotationName)) {
-                    return true;
+            for (PrivateMethod method : methods) {
+                if (method.accepts(arities)) {
+                    method.used = true;
                 }
             }
+        }
+    }
+
+    /**
+     * A private method with its number of parameters.
+     */
+    private static final class PrivateMethod {
+
+        private final DetailAST methodDef;
 
-            annotation = annotation.getNextSibling();
+        private final int arity;
 
-            if (annotation != null && annotation.getType() != TokenTypes.ANNOTATION) {
-                break;
+        private final boolean varargs;
+
+        private boolean used;
+
+        private PrivateMethod(DetailAST methodDef) {
+            this.methodDef = methodDef;
+            DetailAST parameter = methodDef.findFirstToken(TokenTypes.PARAMETERS).getFirstChild();
+            int count = 0;
+            boolean ellipsis = false;
+
+            for (; parameter != null; parameter = parameter.getNextSibling()) {
+                if (parameter.getType() == TokenTypes.PARAMETER_DEF) {
+                    count++;
+                    ellipsis = parameter.findFirstToken(TokenTypes.ELLIPSIS) != null;
+                }
             }
+
+            arity = count;
+            varargs = ellipsis;
         }
 
-        return false;
-    }
+        /**
+         * Checks whether a call with one of the given argument counts can reach this method.
+         *
+         * @param arities the argument counts as arity bits
+         * @return true if one of the counts fits the parameters
+         */
+        private boolean accepts(long arities) {
+            if (varargs) {
+                // The variable arity parameter takes any number of arguments, including none
+                return (arities & (ANY_ARITY << Math.min(arity - 1, MAX_ARITY))) != 0;
+            }
 
-    private boolean isFrameworkAnnotation(String annotationName) {
-        return "Test".equals(annotationName)
-                || "Before".equals(annotationName)
-                || "After".equals(annotationName)
-                || "BeforeEach".equals(annotationName)
-                || "AfterEach".equals(annotationName)
-                || "BeforeAll".equals(annotationName)
-                || "AfterAll".equals(annotationName)
-                || "PostConstruct".equals(annotationName)
-                || "PreDestroy".equals(annotationName)
-                || "Bean".equals(annotationName)
-                || "Scheduled".equals(annotationName)
-                || "EventListener".equals(annotationName)
-                || annotationName.endsWith("Mapping")
-                || annotationName.startsWith("Post")
-                || annotationName.startsWith("Pre")
-                || annotationName.startsWith("Around");
+            return (arities & (1L << Math.min(arity, MAX_ARITY))) != 0;
+        }
     }
 }
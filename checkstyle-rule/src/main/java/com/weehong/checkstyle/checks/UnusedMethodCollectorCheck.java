@@ -0,0 +1,178 @@
+package com.weehong.checkstyle.checks;
+
+import com.weehong.checkstyle.AnnotationClassifier;
+import com.weehong.checkstyle.MethodReferenceIndex;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Companion of UnusedMethodFileCheck that collects method declarations and references from
+ * the trees TreeWalker has already parsed, so no file is parsed a second time.
+ *
+ * <p>This check reports nothing itself. It feeds the {@link MethodReferenceIndex} opened by
+ * UnusedMethodFileCheck for the current run, and does nothing when that check is not
+ * configured. Unlike the other custom checks it does not extend AbstractCustomCheck:
+ * a cached or budgeted file would drop its declarations and references from the index.
+ * For the same reason Checker's {@code cacheFile} must not be used; see
+ * UnusedMethodFileCheck.
+ *
+ * <p>Only public and package-private methods with a body are collected. Overrides, main,
+ * serialization and set-up/tear-down methods, methods with framework annotations, and
+ * methods that follow a reflective naming convention are left out: JavaBean getters
+ * ({@code getX()} and {@code isX()}) and setters ({@code setX(value)}), and the
+ * {@code Externalizable} hooks.
+ */
+@FileStatefulCheck
+public class UnusedMethodCollectorCheck extends AbstractCheck {
+
+    private MethodReferenceIndex index;
+
+    @Override
+    public int[] getDefaultTokens() {
+        return getRequiredTokens();
+    }
+
+    @Override
+    public int[] getAcceptableTokens() {
+        return getRequiredTokens();
+    }
+
+    @Override
+    public int[] getRequiredTokens() {
+        return new int[] {TokenTypes.METHOD_DEF, TokenTypes.METHOD_CALL, TokenTypes.METHOD_REF};
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        index = MethodReferenceIndex.current();
+
+        if (index != null) {
+            index.startFile(getFilePath());
+        }
+    }
+
+    @Override
+    public void visitToken(DetailAST ast) {
+        if (index == null) {
+            return;
+        }
+
+        switch (ast.getType()) {
+            case TokenTypes.METHOD_DEF:
+                processMethodDefinition(ast);
+                break;
+
+            case TokenTypes.METHOD_CALL:
+                markReferenced(ast.getFirstChild());
+                break;
+
+            case TokenTypes.METHOD_REF:
+                markReferenced(ast.getLastChild());
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void finishTree(DetailAST rootAST) {
+        index = null;
+    }
+
+    private void processMethodDefinition(DetailAST methodDef) {
+        DetailAST nameAST = methodDef.findFirstToken(TokenTypes.IDENT);
+
+        if (nameAST == null || !isReportable(methodDef, nameAST.getText())) {
+            return;
+        }
+
+        int lineNo = methodDef.getLineNo();
+        index.addDeclaration(nameAST.getText(), lineNo,
+            1 + CommonUtil.lengthExpandedTabs(getLine(lineNo - 1), methodDef.getColumnNo(), getTabWidth()));
+    }
+
+    private void markReferenced(DetailAST nameAST) {
+        DetailAST ident = nameAST;
+
+        if (ident != null && ident.getType() == TokenTypes.DOT) {
+            ident = ident.getLastChild();
+        }
+
+        if (ident != null && ident.getType() == TokenTypes.IDENT) {
+            index.addReference(ident.getText());
+        }
+    }
+
+    private static boolean isReportable(DetailAST methodDef, String methodName) {
+        if (methodDef.findFirstToken(TokenTypes.SLIST) == null
+            || UnusedMethodCheck.isSpecialMethod(methodName)
+            || isReflectivelyCalled(methodDef, methodName)) {
+            return false;
+        }
+
+        DetailAST modifiers = methodDef.findFirstToken(TokenTypes.MODIFIERS);
+
+        for (DetailAST child = modifiers.getFirstChild(); child != null; child = child.getNextSibling()) {
+            int type = child.getType();
+
+            if (type == TokenTypes.LITERAL_PRIVATE || type == TokenTypes.LITERAL_PROTECTED) {
+                return false;
+            }
+
+            if (type == TokenTypes.ANNOTATION && isExemptAnnotation(child)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isExemptAnnotation(DetailAST annotation) {
+        DetailAST annotationName = annotation.findFirstToken(TokenTypes.IDENT);
+
+        if (annotationName == null) {
+            annotationName = annotation.findFirstToken(TokenTypes.DOT).getLastChild();
+        }
+
+        return (AnnotationClassifier.classify(annotationName.getText())
+            & (AnnotationClassifier.OVERRIDE | AnnotationClassifier.FRAMEWORK_ENTRY_POINT)) != 0;
+    }
+
+    /**
+     * Checks if a method follows a convention under which it is called by reflection, so
+     * that the absence of a call by name proves nothing.
+     *
+     * @param methodDef the method definition
+     * @param methodName the method name
+     * @return true for JavaBean accessors and Externalizable hooks
+     */
+    private static boolean isReflectivelyCalled(DetailAST methodDef, String methodName) {
+        if ("writeExternal".equals(methodName) || "readExternal".equals(methodName)) {
+            return true;
+        }
+
+        int parameterCount = methodDef.findFirstToken(TokenTypes.PARAMETERS)
+            .getChildCount(TokenTypes.PARAMETER_DEF);
+
+        if (parameterCount == 1) {
+            return isPropertyName(methodName, "set");
+        }
+
+        boolean returnsValue = methodDef.findFirstToken(TokenTypes.TYPE)
+            .findFirstToken(TokenTypes.LITERAL_VOID) == null;
+
+        return parameterCount == 0
+            && returnsValue
+            && (isPropertyName(methodName, "get") || isPropertyName(methodName, "is"));
+    }
+
+    private static boolean isPropertyName(String methodName, String prefix) {
+        return methodName.length() > prefix.length()
+            && methodName.startsWith(prefix)
+            && Character.isUpperCase(methodName.charAt(prefix.length()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.weehong.checkstyle.checks;
+
+import com.weehong.checkstyle.MethodReferenceIndex;
+import com.puppycrawl.tools.checkstyle.GlobalStatefulCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
+import com.puppycrawl.tools.checkstyle.api.Violation;
+
+import java.io.File;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Custom Checkstyle check that detects public and package-private methods that are never
+ * referenced from any file of the Checker run.
+ *
+ * <p>This check works at the file-set level, together with UnusedMethodCollectorCheck,
+ * which must be configured in TreeWalker. The collector records the declarations and
+ * references of each file from the tree TreeWalker parsed anyway, into a
+ * {@link MethodReferenceIndex} that this check opens when processing begins. Violations are
+ * reported once all files have been processed. Without the collector there is nothing to
+ * report, so a single violation on the first Java file says that it is missing.
+ *
+ * <p>Like UnusedMethodCheck, references are matched by name only, so a call to any
+ * overload keeps all overloads alive. See UnusedMethodCollectorCheck for the methods that
+ * are never collected, such as overrides and reflectively called accessors. Methods whose
+ * name matches {@code ignorePattern} are skipped as well.
+ *
+ * <p>Only the files processed in the run are indexed, so the check must not be used with
+ * Checker's {@code cacheFile}: a file without violations is skipped on the next run, and
+ * the methods only it calls would be reported as unused. The same holds for any run over
+ * part of the sources, such as the daemon checking the files of a single save or the
+ * runner with more than one thread. Run it over the complete source set without a cache.
+ */
+@GlobalStatefulCheck
+public final class UnusedMethodFileCheck extends AbstractFileSetCheck {
+
+    private static final String MSG_UNUSED_METHOD =
+        "Method ''{0}'' is declared but never referenced in any checked file.";
+
+    private static final String MSG_NO_COLLECTOR =
+        "No file was indexed for unused methods; configure UnusedMethodCollectorCheck in TreeWalker.";
+
+    /**
+     * Pattern of method names that are never reported.
+     */
+    private Pattern ignorePattern = Pattern.compile("^$");
+
+    private MethodReferenceIndex index;
+
+    private String firstFileName;
+
+    /**
+     * Creates the check for Java files.
+     */
+    public UnusedMethodFileCheck() {
+        setFileExtensions("java");
+    }
+
+    /**
+     * Sets the pattern of method names that are never reported.
+     *
+     * @param ignorePattern the pattern
+     */
+    public void setIgnorePattern(Pattern ignorePattern) {
+        this.ignorePattern = ignorePattern;
+    }
+
+    @Override
+    public void beginProcessing(String charset) {
+        super.beginProcessing(charset);
+        index = MethodReferenceIndex.open();
+        firstFileName = null;
+    }
+
+    @Override
+    protected void processFiltered(File file, FileText fileText) {
+        // Declarations and references are collected by UnusedMethodCollectorCheck
+        if (firstFileName == null) {
+            firstFileName = file.getAbsolutePath();
+        }
+    }
+
+    @Override
+    public void finishProcessing() {
+        MethodReferenceIndex finished = index;
+        MethodReferenceIndex.release(finished);
+        index = null;
+
+        if (finished.getFileCount() == 0) {
+            if (firstFileName != null) {
+                SortedSet<Violation> violations = new TreeSet<>();
+                violations.add(createViolation(1, 1, MSG_NO_COLLECTOR, new Object[0]));
+                fireViolations(firstFileName, violations);
+            }
+
+            return;
+        }
+
+        int declaration = 0;
+
+        while (declaration < finished.getDeclarationCount()) {
+            int first = declaration;
+            SortedSet<Violation> violations = new TreeSet<>();
+
+            for (; declaration < finished.getDeclarationCount() && finished.isSameFile(first, declaration);
+                declaration++) {
+                String methodName = finished.getName(declaration);
+
+                if (!finished.isReferenced(declaration) && !ignorePattern.matcher(methodName).find()) {
+                    violations.add(createViolation(finished.getLineNo(declaration),
+                        finished.getColumnNo(declaration), MSG_UNUSED_METHOD, new Object[] {methodName}));
+                }
+            }
+
+            fireViolations(finished.getFileName(first), violations);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        MethodReferenceIndex.release(index);
+        super.destroy();
+    }
+
+    private void fireViolations(String fileName, SortedSet<Violation> violations) {
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        MessageDispatcher dispatcher = getMessageDispatcher();
+        dispatcher.fireFileStarted(fileName);
+        addViolations(violations);
+        fireErrors(fileName);
+        dispatcher.fireFileFinished(fileName);
+    }
+
+    private Violation createViolation(int lineNo, int columnNo, String key, Object[] arguments) {
+        return new Violation(
+            lineNo,
+            columnNo,
+            getMessageBundle(),
+            key,
+            arguments,
+            getSeverityLevel(),
+            getId(),
+            getClass(),
+            getCustomMessages().get(key));
+    }
+}
@@ -1,21 +1,25 @@
 package com.weehong.checkstyle.checks;
 
-import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.weehong.checkstyle.AbstractCustomCheck;
+import com.weehong.checkstyle.AnnotationClassifier;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 
 /**
  * Custom Checkstyle check that detects unused local variables and parameters.
  *
  * <p>This check tracks variable declarations and their usage within methods,
- * constructors, and blocks to identify variables that are declared but never used.
+ * constructors, lambdas, and blocks to identify variables that are declared but never used.
+ * Declarations live in a lexical scope stack, so a variable is resolved to the innermost
+ * declaration with its name, and methods of nested and anonymous classes are analysed
+ * like any other method.
  */
-public class UnusedVariableCheck extends AbstractCheck {
+@FileStatefulCheck
+public class UnusedVariableCheck extends AbstractCustomCheck {
 
     private static final String MSG_UNUSED_LOCAL_VARIABLE =
         "Local variable ''{0}'' is declared but never used.";
@@ -23,9 +27,33 @@ public class UnusedVariableCheck extends AbstractCheck {
     private static final String MSG_UNUSED_PARAMETER =
         "Parameter ''{0}'' is declared but never used.";
 
-    private final Map<String, DetailAST> declaredVariables = new HashMap<>();
-    private final Set<String> usedVariables = new HashSet<>();
-    private boolean inMethodOrConstructor = false;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Slot flag for declarations that are reported when unused. Fields, catch parameters
+     * and exempt method parameters still occupy a slot so that they shadow outer names.
+     */
+    private static final int TRACKED = 1;
+
+    /**
+     * Slot flag for declarations that have been referenced.
+     */
+    private static final int USED = 2;
+
+    /**
+     * Innermost slot declared under each name currently in scope.
+     */
+    private final NameSlots slotsByName = new NameSlots();
+
+    private String[] slotNames = new String[INITIAL_CAPACITY];
+    private DetailAST[] slotDeclarations = new DetailAST[INITIAL_CAPACITY];
+    private int[] slotFlags = new int[INITIAL_CAPACITY];
+    private int[] shadowedSlots = new int[INITIAL_CAPACITY];
+    private int slotCount;
+
+    private int[] frameStarts = new int[INITIAL_CAPACITY];
+    private boolean[] frameTracksParameters = new boolean[INITIAL_CAPACITY];
+    private int frameCount;
 
     @Override
     public int[] getDefaultTokens() {
@@ -40,8 +68,13 @@ public class UnusedVariableCheck extends AbstractCheck {
     @Override
     public int[] getRequiredTokens() {
         return new int[]{
+            TokenTypes.OBJBLOCK,
             TokenTypes.METHOD_DEF,
             TokenTypes.CTOR_DEF,
+            TokenTypes.LAMBDA,
+            TokenTypes.SLIST,
+            TokenTypes.LITERAL_FOR,
+            TokenTypes.LITERAL_CATCH,
             TokenTypes.VARIABLE_DEF,
             TokenTypes.PARAMETER_DEF,
             TokenTypes.IDENT
@@ -49,66 +82,48 @@ public class UnusedVariableCheck extends AbstractCheck {
     }
 
     @Override
-    public void beginTree(DetailAST rootAST) {
-        declaredVariables.clear();
-        usedVariables.clear();
-        inMethodOrConstructor = false;
+    protected void onBeginTree(DetailAST rootAST) {
+        slotsByName.clear();
+        Arrays.fill(slotDeclarations, 0, slotCount, null);
+        slotCount = 0;
+        frameCount = 0;
     }
 
     @Override
-    public void visitToken(DetailAST ast) {
+    protected void onVisitToken(DetailAST ast) {
         switch (ast.getType()) {
             case TokenTypes.METHOD_DEF:
             case TokenTypes.CTOR_DEF:
-                if (inMethodOrConstructor) {
-                    return;
-                }
-                inMethodOrConstructor = true;
-                declaredVariables.clear();
-                usedVariables.clear();
+                pushFrame(!isOverrideMethod(ast)
+                    && !isMainMethod(ast)
+                    && !isSerializationMethod(ast));
                 break;
 
-            case TokenTypes.VARIABLE_DEF:
-                if (inMethodOrConstructor && isLocalVariable(ast)) {
-                    DetailAST nameAST = ast.findFirstToken(TokenTypes.IDENT);
-
-                    if (nameAST != null) {
-                        String varName = nameAST.getText();
-                        declaredVariables.put(varName, ast);
-                    }
-                }
+            case TokenTypes.LAMBDA:
+                pushFrame(tracksParameters());
+                declareImplicitLambdaParameter(ast);
                 break;
 
-            case TokenTypes.PARAMETER_DEF:
-                if (inMethodOrConstructor) {
-                    DetailAST nameAST = ast.findFirstToken(TokenTypes.IDENT);
-
-                    if (nameAST != null) {
-                        String paramName = nameAST.getText();
+            case TokenTypes.OBJBLOCK:
+                pushFrame(false);
+                break;
 
-                        if (isExceptionParameter(ast)) {
-                            break;
-                        }
+            case TokenTypes.SLIST:
+            case TokenTypes.LITERAL_FOR:
+            case TokenTypes.LITERAL_CATCH:
+                pushFrame(tracksParameters());
+                break;
 
-                        DetailAST methodOrCtor = getParentMethodOrConstructor(ast);
+            case TokenTypes.VARIABLE_DEF:
+                processVariableDef(ast);
+                break;
 
-                        if (methodOrCtor != null && !isOverrideMethod(methodOrCtor)
-                            && !isMainMethod(methodOrCtor)
-                            && !isSerializationMethod(methodOrCtor)) {
-                            declaredVariables.put(paramName, ast);
-                        }
-                    }
-                }
+            case TokenTypes.PARAMETER_DEF:
+                processParameterDef(ast);
                 break;
 
             case TokenTypes.IDENT:
-                if (inMethodOrConstructor) {
-                    String identName = ast.getText();
-
-                    if (declaredVariables.containsKey(identName) && !isDeclaration(ast)) {
-                        usedVariables.add(identName);
-                    }
-                }
+                processIdent(ast);
                 break;
 
             default:
@@ -117,110 +132,159 @@ public class UnusedVariableCheck extends AbstractCheck {
     }
 
     @Override
-    public void leaveToken(DetailAST ast) {
-        if (ast.getType() == TokenTypes.METHOD_DEF || ast.getType() == TokenTypes.CTOR_DEF) {
-            if (inMethodOrConstructor) {
-                checkUnusedVariables();
-                declaredVariables.clear();
-                usedVariables.clear();
-                inMethodOrConstructor = false;
-            }
+    protected void onLeaveToken(DetailAST ast) {
+        switch (ast.getType()) {
+            case TokenTypes.OBJBLOCK:
+            case TokenTypes.METHOD_DEF:
+            case TokenTypes.CTOR_DEF:
+            case TokenTypes.LAMBDA:
+            case TokenTypes.SLIST:
+            case TokenTypes.LITERAL_FOR:
+            case TokenTypes.LITERAL_CATCH:
+                popFrame();
+                break;
+
+            default:
+                break;
         }
     }
 
-    private void checkUnusedVariables() {
-        for (Map.Entry<String, DetailAST> entry : declaredVariables.entrySet()) {
-            String varName = entry.getKey();
-            DetailAST varAST = entry.getValue();
+    private void processVariableDef(DetailAST variableDef) {
+        DetailAST parent = variableDef.getParent();
+        DetailAST nameAST = variableDef.findFirstToken(TokenTypes.IDENT);
 
-            if (!usedVariables.contains(varName)) {
-                if (varAST.getType() == TokenTypes.PARAMETER_DEF) {
-                    log(varAST, MSG_UNUSED_PARAMETER, varName);
-                } else {
-                    log(varAST, MSG_UNUSED_LOCAL_VARIABLE, varName);
-                }
-            }
+        if (parent == null || nameAST == null) {
+            return;
         }
-    }
 
-    private boolean isLocalVariable(DetailAST variableDef) {
-        DetailAST parent = variableDef.getParent();
-        return parent != null && (parent.getType() == TokenTypes.SLIST
-            || parent.getType() == TokenTypes.FOR_INIT
-            || parent.getType() == TokenTypes.FOR_EACH_CLAUSE);
+        int parentType = parent.getType();
+
+        if (parentType == TokenTypes.SLIST
+            || parentType == TokenTypes.FOR_INIT
+            || parentType == TokenTypes.FOR_EACH_CLAUSE) {
+            declare(nameAST.getText(), variableDef, true);
+        } else if (parentType == TokenTypes.OBJBLOCK) {
+            declare(nameAST.getText(), variableDef, false);
+        }
     }
 
-    private boolean isDeclaration(DetailAST ident) {
-        DetailAST parent = ident.getParent();
+    private void processParameterDef(DetailAST parameterDef) {
+        DetailAST nameAST = parameterDef.findFirstToken(TokenTypes.IDENT);
 
-        if (parent == null) {
-            return false;
+        if (nameAST == null) {
+            return;
         }
 
-        int parentType = parent.getType();
-        return parentType == TokenTypes.VARIABLE_DEF
-            || parentType == TokenTypes.PARAMETER_DEF;
+        boolean exceptionParameter = parameterDef.getParent().getType() == TokenTypes.LITERAL_CATCH;
+        declare(nameAST.getText(), parameterDef, !exceptionParameter && tracksParameters());
     }
 
-    private DetailAST getParentMethodOrConstructor(DetailAST ast) {
-        DetailAST current = ast;
+    private void processIdent(DetailAST ident) {
+        int slot = slotsByName.get(ident.getText());
 
-        while (current != null) {
-            int type = current.getType();
+        if (slot >= 0 && !isDeclaration(ident)) {
+            slotFlags[slot] |= USED;
+        }
+    }
 
-            if (type == TokenTypes.METHOD_DEF || type == TokenTypes.CTOR_DEF) {
-                return current;
-            }
+    private void declareImplicitLambdaParameter(DetailAST lambda) {
+        DetailAST firstChild = lambda.getFirstChild();
 
-            current = current.getParent();
+        if (firstChild != null && firstChild.getType() == TokenTypes.IDENT) {
+            declare(firstChild.getText(), firstChild, false);
         }
-
-        return null;
     }
 
-    private boolean isOverrideMethod(DetailAST methodDef) {
-        DetailAST modifiers = methodDef.findFirstToken(TokenTypes.MODIFIERS);
-
-        if (modifiers == null) {
-            return false;
+    private void declare(String name, DetailAST declaration, boolean tracked) {
+        if (slotCount == slotNames.length) {
+            int capacity = slotCount * 2;
+            slotNames = Arrays.copyOf(slotNames, capacity);
+            slotDeclarations = Arrays.copyOf(slotDeclarations, capacity);
+            slotFlags = Arrays.copyOf(slotFlags, capacity);
+            shadowedSlots = Arrays.copyOf(shadowedSlots, capacity);
         }
 
-        DetailAST annotation = modifiers.findFirstToken(TokenTypes.ANNOTATION);
+        int slot = slotCount++;
+        int shadowed = slotsByName.put(name, slot);
+        slotNames[slot] = name;
+        slotDeclarations[slot] = declaration;
+        slotFlags[slot] = tracked
+            ? TRACKED
+            : 0;
+        shadowedSlots[slot] = shadowed;
+    }
 
-        while (annotation != null) {
-            DetailAST annotationIdent = annotation.findFirstToken(TokenTypes.IDENT);
+    private void pushFrame(boolean tracksParameters) {
+        if (frameCount == frameStarts.length) {
+            int capacity = frameCount * 2;
+            frameStarts = Arrays.copyOf(frameStarts, capacity);
+            frameTracksParameters = Arrays.copyOf(frameTracksParameters, capacity);
+        }
 
-            if (annotationIdent != null && "Override".equals(annotationIdent.getText())) {
-                return true;
-            }
+        frameStarts[frameCount] = slotCount;
+        frameTracksParameters[frameCount] = tracksParameters;
+        frameCount++;
+    }
 
-            annotation = annotation.getNextSibling();
+    private void popFrame() {
+        frameCount--;
+        int frameStart = frameStarts[frameCount];
 
-            if (annotation != null && annotation.getType() != TokenTypes.ANNOTATION) {
-                break;
+        for (int slot = slotCount - 1; slot >= frameStart; slot--) {
+            if (slotFlags[slot] == TRACKED) {
+                reportUnused(slotNames[slot], slotDeclarations[slot]);
             }
+
+            slotsByName.put(slotNames[slot], shadowedSlots[slot]);
+            slotDeclarations[slot] = null;
         }
 
-        return false;
+        slotCount = frameStart;
     }
 
-    private boolean isMainMethod(DetailAST methodDef) {
-        DetailAST methodNameAST = methodDef.findFirstToken(TokenTypes.IDENT);
+    /**
+     * Whether parameters declared in the innermost frame are reported when unused.
+     * Lambdas and blocks inherit the setting of the method they appear in.
+     *
+     * @return true if parameters are tracked
+     */
+    private boolean tracksParameters() {
+        return frameCount > 0 && frameTracksParameters[frameCount - 1];
+    }
 
-        if (methodNameAST == null || !"main".equals(methodNameAST.getText())) {
-            return false;
+    private void reportUnused(String name, DetailAST declaration) {
+        if (declaration.getType() == TokenTypes.PARAMETER_DEF) {
+            log(declaration, MSG_UNUSED_PARAMETER, name);
+        } else {
+            log(declaration, MSG_UNUSED_LOCAL_VARIABLE, name);
         }
+    }
 
-        DetailAST modifiers = methodDef.findFirstToken(TokenTypes.MODIFIERS);
+    private boolean isDeclaration(DetailAST ident) {
+        DetailAST parent = ident.getParent();
 
-        if (modifiers == null) {
+        if (parent == null) {
             return false;
         }
 
-        boolean isPublic = modifiers.findFirstToken(TokenTypes.LITERAL_PUBLIC) != null;
-        boolean isStatic = modifiers.findFirstToken(TokenTypes.LITERAL_STATIC) != null;
+        int parentType = parent.getType();
+        return parentType == TokenTypes.VARIABLE_DEF
+            || parentType == TokenTypes.PARAMETER_DEF;
+    }
 
-        return isPublic && isStatic;
+    private boolean isOverrideMethod(DetailAST methodDef) {
+        return (getFacts().getAnnotationKinds(methodDef) & AnnotationClassifier.OVERRIDE) != 0;
+    }
+
+    private boolean isMainMethod(DetailAST methodDef) {
+        DetailAST methodNameAST = methodDef.findFirstToken(TokenTypes.IDENT);
+
+        if (methodNameAST == null || !"main".equals(methodNameAST.getText())) {
+            return false;
+        }
+
+        int modifiers = getFacts().getModifiers(methodDef);
+        return Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers);
     }
 
     private boolean isSerializationMethod(DetailAST methodDef) {
@@ -238,17 +302,94 @@ public class UnusedVariableCheck extends AbstractCheck {
             || "readResolve".equals(methodName);
     }
 
-    private boolean isExceptionParameter(DetailAST parameterDef) {
-        DetailAST parent = parameterDef.getParent();
+    /**
+     * Open addressing map from names to slots with linear probing. A name that goes out of
+     * scope keeps its entry with slot -1, so entries are never removed and lookups and
+     * updates do not box the slot.
+     */
+    private static final class NameSlots {
+
+        private String[] names = new String[INITIAL_CAPACITY];
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int size;
+
+        /**
+         * Gets the slot of a name.
+         *
+         * @param name the name
+         * @return the slot, or -1 if the name is not in scope
+         */
+        private int get(String name) {
+            int index = indexOf(names, name);
+            return names[index] == null
+                ? -1
+                : slots[index];
+        }
+
+        /**
+         * Sets the slot of a name.
+         *
+         * @param name the name
+         * @param slot the slot, or -1 to take the name out of scope
+         * @return the previous slot, or -1 if the name was not in scope
+         */
+        private int put(String name, int slot) {
+            int index = indexOf(names, name);
+
+            if (names[index] != null) {
+                int previous = slots[index];
+                slots[index] = slot;
+                return previous;
+            }
 
-        while (parent != null) {
-            if (parent.getType() == TokenTypes.LITERAL_CATCH) {
-                return true;
+            if ((size + 1) * 2 > names.length) {
+                grow();
+                index = indexOf(names, name);
             }
 
-            parent = parent.getParent();
+            names[index] = name;
+            slots[index] = slot;
+            size++;
+            return -1;
+        }
+
+        private void clear() {
+            Arrays.fill(names, null);
+            size = 0;
         }
 
-        return false;
+        private void grow() {
+            String[] oldNames = names;
+            int[] oldSlots = slots;
+            names = new String[oldNames.length * 2];
+            slots = new int[oldNames.length * 2];
+
+            for (int i = 0; i < oldNames.length; i++) {
+                if (oldNames[i] != null) {
+                    int index = indexOf(names, oldNames[i]);
+                    names[index] = oldNames[i];
+                    slots[index] = oldSlots[i];
+                }
+            }
+        }
+
+        /**
+         * Finds the index that holds a name, or the empty index where it belongs.
+         *
+         * @param table the table to search
+         * @param name the name
+         * @return the index
+         */
+        private static int indexOf(String[] table, String name) {
+            int mask = table.length - 1;
+            int hash = name.hashCode();
+            int index = (hash ^ (hash >>> 16)) & mask;
+
+            while (table[index] != null && !table[index].equals(name)) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
     }
 }
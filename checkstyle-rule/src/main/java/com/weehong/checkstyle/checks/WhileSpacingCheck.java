@@ -1,6 +1,7 @@
 package com.weehong.checkstyle.checks;
 
 import com.weehong.checkstyle.AbstractStatementSpacingCheck;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -12,6 +13,7 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * by a blank line for improved readability, unless they are the first or last statement
  * in a block.
  */
+@FileStatefulCheck
 public class WhileSpacingCheck extends AbstractStatementSpacingCheck {
 
     private static final String MSG_TEMPLATE_BEFORE =
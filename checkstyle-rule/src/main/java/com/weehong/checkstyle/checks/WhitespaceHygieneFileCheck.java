@@ -0,0 +1,103 @@
+package com.weehong.checkstyle.checks;
+
+import com.weehong.checkstyle.WhitespaceScanner;
+import com.puppycrawl.tools.checkstyle.StatelessCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+import java.io.File;
+
+/**
+ * Custom Checkstyle check that finds tab characters, trailing whitespace and more than one
+ * consecutive blank line in a single pass over the file.
+ * This check works at the file level and can be applied to any file type (Java, XML, properties, etc.).
+ *
+ * <p>It replaces FileTabCharacter, a RegexpSingleline with the format {@code \s+$}, and
+ * NoMultipleBlankLinesFileCheck, and reports the same violations with the same messages:
+ * the first tab of the file, or of every line when {@code eachLine} is set; every line
+ * that ends with whitespace; and every blank line that follows another blank line.
+ *
+ * <p>The file text is scanned in place by a {@link WhitespaceScanner}, the same scanner
+ * that MappedWhitespaceFileCheck feeds with the bytes of large files.
+ *
+ * <p>Files larger than {@code maxFileSize} bytes are skipped, so that MappedWhitespaceFileCheck
+ * can scan them instead when both run in a plain Checker; 0, the default, checks every file.
+ */
+@StatelessCheck
+public class WhitespaceHygieneFileCheck extends AbstractFileSetCheck {
+
+    private static final String MSG_CONTAINS_TAB = "Line contains a tab character.";
+
+    private static final String MSG_FILE_CONTAINS_TAB =
+        "File contains tab characters (this is the first instance).";
+
+    private static final String MSG_TRAILING_SPACES = "Line has trailing spaces.";
+
+    private static final String MSG_MULTIPLE_BLANK_LINES = "More than 1 consecutive blank line is not allowed.";
+
+    /**
+     * Whether to report the first tab of each line instead of the first tab of the file.
+     */
+    private boolean eachLine;
+
+    /**
+     * Size in bytes above which a file is skipped; 0 for no limit.
+     */
+    private long maxFileSize;
+
+    /**
+     * Sets whether to report the first tab of each line instead of the first tab of the file.
+     *
+     * @param eachLine true to report every line that contains a tab
+     */
+    public void setEachLine(boolean eachLine) {
+        this.eachLine = eachLine;
+    }
+
+    /**
+     * Sets the size in bytes above which a file is skipped.
+     *
+     * @param maxFileSize the maximum file size, or 0 for no limit
+     */
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Override
+    protected void processFiltered(File file, FileText fileText) {
+        if (maxFileSize > 0 && file.length() > maxFileSize) {
+            return;
+        }
+
+        new WhitespaceScanner(new ViolationHandler()).scan(fileText.getFullText().toString());
+    }
+
+    /**
+     * Logs the findings of the scanner for one file.
+     */
+    private final class ViolationHandler implements WhitespaceScanner.Handler {
+
+        private boolean fileHasTab;
+
+        @Override
+        public void tab(int lineNo, int charIndex) {
+            if (eachLine) {
+                log(lineNo, charIndex, MSG_CONTAINS_TAB);
+            } else if (!fileHasTab) {
+                log(lineNo, charIndex, MSG_FILE_CONTAINS_TAB);
+            }
+
+            fileHasTab = true;
+        }
+
+        @Override
+        public void trailingWhitespace(int lineNo) {
+            log(lineNo, MSG_TRAILING_SPACES);
+        }
+
+        @Override
+        public void repeatedBlankLine(int lineNo) {
+            log(lineNo, MSG_MULTIPLE_BLANK_LINES);
+        }
+    }
+}
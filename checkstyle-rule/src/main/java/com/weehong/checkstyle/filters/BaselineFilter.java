@@ -0,0 +1,127 @@
+package com.weehong.checkstyle.filters;
+
+import com.weehong.checkstyle.Baseline;
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filter that suppresses the violations recorded in a baseline file.
+ *
+ * <p>A legacy module can adopt the rules without fixing or listing its existing violations:
+ * the runner's {@code -g} option records them in a baseline, and this filter drops every
+ * violation whose file, module and line content are in it. Unlike SuppressionFilter, which
+ * matches each event against every suppression, the cost per event does not grow with the
+ * size of the baseline; see {@link Baseline} for the format.
+ *
+ * <p>The line content is read from the checked file, and only for files that have entries
+ * in the baseline. File names are made relative to {@code basedir}, which must match the
+ * base directory the baseline was generated with.
+ */
+public class BaselineFilter extends AbstractAutomaticBean implements Filter {
+
+    /**
+     * Location of the baseline file.
+     */
+    private String file;
+
+    /**
+     * Whether a missing baseline file is accepted, in which case nothing is suppressed.
+     */
+    private boolean optional;
+
+    /**
+     * Directory that file names are made relative to. Checker passes its own base directory
+     * here when it has one.
+     */
+    private String basedir;
+
+    /**
+     * Charset of the checked files. Checker passes its own charset here.
+     */
+    private Charset charset = StandardCharsets.UTF_8;
+
+    private Baseline baseline;
+
+    private Baseline.SourceLines sourceLines;
+
+    /**
+     * Sets the location of the baseline file.
+     *
+     * @param file the baseline file
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Sets whether a missing baseline file is accepted.
+     *
+     * @param optional true to suppress nothing when the file is missing
+     */
+    public void setOptional(boolean optional) {
+        this.optional = optional;
+    }
+
+    /**
+     * Sets the directory that file names are made relative to.
+     *
+     * @param basedir the base directory
+     */
+    public void setBasedir(String basedir) {
+        this.basedir = basedir;
+    }
+
+    /**
+     * Sets the charset of the checked files.
+     *
+     * @param charset the name of the charset
+     */
+    public void setCharset(String charset) {
+        this.charset = Charset.forName(charset);
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        if (baseline == null || event.getViolation() == null) {
+            return true;
+        }
+
+        long pathHash = Baseline.hash(Baseline.relativize(basedir, event.getFileName()));
+
+        if (!baseline.containsFile(pathHash)) {
+            return true;
+        }
+
+        String lineContent = sourceLines.getLine(event.getFileName(), event.getLine());
+        return !baseline.contains(pathHash, Baseline.getModuleName(event), lineContent);
+    }
+
+    @Override
+    protected void finishLocalSetup() throws CheckstyleException {
+        if (file == null) {
+            return;
+        }
+
+        if (!new File(file).isFile()) {
+            if (optional) {
+                return;
+            }
+
+            throw new CheckstyleException("Unable to find baseline file " + file);
+        }
+
+        try {
+            baseline = Baseline.forFile(file);
+        } catch (RuntimeException ex) {
+            throw new CheckstyleException("Unable to read baseline file " + file, ex);
+        }
+
+        sourceLines = new Baseline.SourceLines(basedir, charset);
+    }
+}
@@ -0,0 +1,125 @@
+package com.weehong.checkstyle.filters;
+
+import com.puppycrawl.tools.checkstyle.AbstractAutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilter;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.regex.Pattern;
+
+/**
+ * File filter that excludes generated sources before they are read and parsed.
+ *
+ * <p>Code generators such as MapStruct, jOOQ, protoc and OpenAPI Generator mark their
+ * output with a {@code @Generated} annotation or a "DO NOT EDIT" comment near the top of
+ * the file. This filter reads only the first {@code headerBytes} bytes of each file with
+ * one of the configured {@code fileExtensions} and rejects the file when that header
+ * matches {@code format}, so TreeWalker never parses it.
+ *
+ * <p>The default format only accepts markers that hand-written code does not carry: the
+ * {@code javax.annotation.Generated}, {@code javax.annotation.processing.Generated} and
+ * {@code jakarta.annotation.Generated} annotations, imported or fully qualified, and a
+ * comment line that says the file is generated and must not be edited, such as
+ * {@code // Code generated by protoc. DO NOT EDIT.} Other {@code @Generated} annotations,
+ * such as Hibernate's, and a "do not edit" remark on its own are not markers.
+ *
+ * <p>The header is decoded as ISO-8859-1, which maps every byte to one character; the
+ * markers are plain ASCII, so they are found in UTF-8 files as well. A file that cannot be
+ * read is accepted, so that Checker reports the error as usual.
+ */
+public class GeneratedSourceFileFilter extends AbstractAutomaticBean implements BeforeExecutionFileFilter {
+
+    /**
+     * Number of bytes at the start of a file that are searched; 0 accepts every file.
+     */
+    private int headerBytes = 4096;
+
+    /**
+     * Pattern that marks a file as generated when found in its header.
+     */
+    private Pattern format = Pattern.compile(
+        "(?:import\\s+|@)(?:javax|jakarta)\\.annotation\\.(?:processing\\.)?Generated\\b"
+            + "|(?im:^[ \\t]*(?://|/\\*|\\*).*\\bgenerated\\b.*\\bdo not edit\\b)");
+
+    /**
+     * Extensions of the files that are searched; all files when empty.
+     */
+    private String[] fileExtensions = {".java"};
+
+    /**
+     * Directory that relative file names are resolved against. Checker passes its own base
+     * directory here and relativizes file names against it before filtering.
+     */
+    private String basedir;
+
+    /**
+     * Sets the number of bytes at the start of a file that are searched.
+     *
+     * @param headerBytes the header size in bytes, or 0 to accept every file
+     */
+    public void setHeaderBytes(int headerBytes) {
+        this.headerBytes = headerBytes;
+    }
+
+    /**
+     * Sets the pattern that marks a file as generated.
+     *
+     * @param format the pattern
+     */
+    public void setFormat(Pattern format) {
+        this.format = format;
+    }
+
+    /**
+     * Sets the extensions of the files that are searched.
+     *
+     * @param extensions the file extensions, with or without the leading dot
+     */
+    public void setFileExtensions(String... extensions) {
+        fileExtensions = new String[extensions.length];
+
+        for (int i = 0; i < extensions.length; i++) {
+            fileExtensions[i] = extensions[i].startsWith(".")
+                ? extensions[i]
+                : "." + extensions[i];
+        }
+    }
+
+    /**
+     * Sets the directory that relative file names are resolved against.
+     *
+     * @param basedir the base directory
+     */
+    public void setBasedir(String basedir) {
+        this.basedir = basedir;
+    }
+
+    @Override
+    public boolean accept(String uri) {
+        File file = new File(uri);
+
+        if (headerBytes <= 0 || !CommonUtil.matchesFileExtension(file, fileExtensions)) {
+            return true;
+        }
+
+        if (!file.isAbsolute() && basedir != null) {
+            file = new File(basedir, uri);
+        }
+
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            String header = new String(input.readNBytes(headerBytes), StandardCharsets.ISO_8859_1);
+            return !format.matcher(header).find();
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    @Override
+    protected void finishLocalSetup() {
+        // No code by default
+    }
+}
@@ -0,0 +1,30 @@
+package com.weehong.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class AnnotationClassifierTest {
+
+    @Test
+    void testKnownNamesAreClassified() {
+        assertThat(AnnotationClassifier.classify("Data")).isEqualTo(AnnotationClassifier.LOMBOK_FORBIDDEN);
+        assertThat(AnnotationClassifier.classify("Schema")).isEqualTo(AnnotationClassifier.SWAGGER);
+        assertThat(AnnotationClassifier.classify("BeforeEach"))
+            .isEqualTo(AnnotationClassifier.FRAMEWORK_ENTRY_POINT);
+        assertThat(AnnotationClassifier.classify("SuppressWarnings"))
+            .isEqualTo(AnnotationClassifier.SUPPRESS_WARNINGS);
+        assertThat(AnnotationClassifier.classify("Override")).isEqualTo(AnnotationClassifier.OVERRIDE);
+    }
+
+    @Test
+    void testOtherNamesAreClassifiedByRule() {
+        assertThat(AnnotationClassifier.classify("GetMapping"))
+            .isEqualTo(AnnotationClassifier.FRAMEWORK_ENTRY_POINT);
+        assertThat(AnnotationClassifier.classify("PreAuthorize"))
+            .isEqualTo(AnnotationClassifier.FRAMEWORK_ENTRY_POINT);
+        assertThat(AnnotationClassifier.classify("Getter")).isEqualTo(0);
+        assertThat(AnnotationClassifier.classify("Entity")).isEqualTo(0);
+        assertThat(AnnotationClassifier.classify("")).isEqualTo(0);
+    }
+}
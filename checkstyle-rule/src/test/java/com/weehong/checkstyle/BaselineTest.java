@@ -0,0 +1,146 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.weehong.checkstyle.checks.NoVarKeywordCheck;
+import com.weehong.checkstyle.filters.BaselineFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BaselineTest extends AbstractModuleTestSupport {
+
+    private static final String MESSAGE =
+        "Use of 'var' keyword is not allowed. Concrete data type must be explicitly declared.";
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testKnownViolationsAreSuppressed() throws Exception {
+        final Path source = Files.write(temporaryFolder.resolve("InputLegacy.java"), List.of(
+            "public class InputLegacy {",
+            "    void method() {",
+            "        var first = 1;",
+            "        var second = 2;",
+            "    }",
+            "}"));
+        final Path baseline = temporaryFolder.resolve("baseline.txt");
+
+        final List<AuditEvent> events = collect(createModuleConfig(TreeWalker.class), source);
+        final int entries = Baseline.write(baseline, events, temporaryFolder.toString(), StandardCharsets.UTF_8);
+
+        assertThat(entries).isEqualTo(2);
+        assertThat(Files.readAllLines(baseline).get(1)).matches("[0-9a-f]{16} NoVarKeywordCheck [0-9a-f]{16}");
+
+        // Known violations stay known when lines move, and are reported again once edited
+        Files.write(source, List.of(
+            "public class InputLegacy {",
+            "",
+            "    void method() {",
+            "        var first = 1;",
+            "        var second = 3;",
+            "        var third = 4;",
+            "    }",
+            "}"));
+
+        final String[] expected = {
+            "5:9: " + MESSAGE,
+            "6:9: " + MESSAGE,
+        };
+
+        verify(createChecker(createBaselineConfig(baseline)), source.toString(), expected);
+    }
+
+    @Test
+    void testOtherFilesAreNotSuppressed() throws Exception {
+        final List<String> content = List.of(
+            "public class InputLegacy {",
+            "    void method() {",
+            "        var first = 1;",
+            "    }",
+            "}");
+        final Path source = Files.write(temporaryFolder.resolve("InputLegacy.java"), content);
+        Files.createDirectories(temporaryFolder.resolve("other"));
+        final Path copy = Files.write(temporaryFolder.resolve("other/InputLegacy.java"), content);
+        final Path baseline = temporaryFolder.resolve("baseline.txt");
+
+        Baseline.write(baseline, collect(createModuleConfig(TreeWalker.class), source), temporaryFolder.toString(),
+            StandardCharsets.UTF_8);
+
+        final String[] expected = {
+            "3:9: " + MESSAGE,
+        };
+
+        verify(createChecker(createBaselineConfig(baseline)), copy.toString(), expected);
+        verify(createChecker(createBaselineConfig(baseline)), source.toString(), new String[0]);
+    }
+
+    @Test
+    void testMissingBaseline() throws Exception {
+        final DefaultConfiguration rootConfig = createBaselineConfig(temporaryFolder.resolve("missing.txt"));
+        final DefaultConfiguration filterConfig = (DefaultConfiguration) rootConfig.getChildren()[0];
+        filterConfig.addProperty("optional", "true");
+
+        final Path source = Files.write(temporaryFolder.resolve("InputLegacy.java"), List.of(
+            "public class InputLegacy {",
+            "    void method() {",
+            "        var first = 1;",
+            "    }",
+            "}"));
+
+        final String[] expected = {
+            "3:9: " + MESSAGE,
+        };
+
+        verify(createChecker(rootConfig), source.toString(), expected);
+
+        final DefaultConfiguration requiredConfig = createBaselineConfig(temporaryFolder.resolve("missing.txt"));
+        final Exception exception = assertThrows(Exception.class, () -> createChecker(requiredConfig));
+        assertThat(exception).hasMessageThat().contains("missing.txt");
+    }
+
+    private DefaultConfiguration createBaselineConfig(Path baseline) {
+        final DefaultConfiguration filterConfig = createModuleConfig(BaselineFilter.class);
+        filterConfig.addProperty("file", baseline.toString());
+        filterConfig.addProperty("basedir", temporaryFolder.toString());
+
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(NoVarKeywordCheck.class));
+
+        final DefaultConfiguration rootConfig = createRootConfig(filterConfig);
+        rootConfig.addChild(treeWalkerConfig);
+        return rootConfig;
+    }
+
+    private List<AuditEvent> collect(DefaultConfiguration treeWalkerConfig, Path source) throws Exception {
+        treeWalkerConfig.addChild(createModuleConfig(NoVarKeywordCheck.class));
+        final Checker checker = createChecker(treeWalkerConfig);
+        final ViolationCollector collector = new ViolationCollector();
+
+        try {
+            checker.addListener(collector);
+            checker.process(List.of(new File(source.toString())));
+        } finally {
+            checker.destroy();
+        }
+
+        return collector.getEvents();
+    }
+}
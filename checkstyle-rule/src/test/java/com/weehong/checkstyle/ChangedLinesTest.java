@@ -0,0 +1,146 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.weehong.checkstyle.checks.IfSpacingCheck;
+import com.weehong.checkstyle.checks.UnusedVariableCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ChangedLinesTest extends AbstractModuleTestSupport {
+
+    private static final String[] NO_VIOLATIONS = {};
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testUnifiedDiffIsParsed() throws Exception {
+        final Path diff = Files.write(temporaryFolder.resolve("changes.diff"), List.of(
+            "diff --git a/src/Main.java b/src/Main.java",
+            "--- a/src/Main.java",
+            "+++ b/src/Main.java",
+            "@@ -10,2 +10,3 @@ class Main {",
+            "@@ -30,4 +31,0 @@ class Main {",
+            "@@ -40 +40 @@ class Main {",
+            "diff --git a/src/Gone.java b/src/Gone.java",
+            "--- a/src/Gone.java",
+            "+++ /dev/null",
+            "@@ -1,5 +0,0 @@"));
+
+        final ChangedLines changes = ChangedLines.forFile(diff.toString());
+
+        assertThat(changes.getRanges("/work/repo/src/Main.java")).asList()
+            .containsExactly(10, 12, 31, 32, 40, 40).inOrder();
+        assertThat(changes.getRanges("/work/repo/other/Main.java")).isNull();
+        assertThat(changes.getRanges("/work/repo/src/Gone.java")).isNull();
+    }
+
+    @Test
+    void testRangesAreMergedAndSearched() throws Exception {
+        final Path list = Files.write(temporaryFolder.resolve("changes.txt"), List.of(
+            "# changed lines",
+            "src/Main.java:20-25,3,4-6",
+            "src/Whole.java"));
+
+        final ChangedLines changes = ChangedLines.forFile(list.toString());
+        final int[] ranges = changes.getRanges("src/Main.java");
+
+        assertThat(ranges).asList().containsExactly(3, 6, 20, 25).inOrder();
+        assertThat(ChangedLines.intersects(ranges, 1, 2)).isFalse();
+        assertThat(ChangedLines.intersects(ranges, 6, 8)).isTrue();
+        assertThat(ChangedLines.intersects(ranges, 7, 19)).isFalse();
+        assertThat(ChangedLines.intersects(ranges, 10, 20)).isTrue();
+        assertThat(ChangedLines.intersects(ranges, 26, 30)).isFalse();
+        assertThat(ChangedLines.intersects(changes.getRanges("C:\\work\\src\\Whole.java"), 500, 500)).isTrue();
+    }
+
+    @Test
+    void testWholeFileRangesAreMerged() throws Exception {
+        final Path list = Files.write(temporaryFolder.resolve("whole.txt"), List.of(
+            "src/Main.java",
+            "src/Main.java:5-7"));
+
+        assertThat(ChangedLines.forFile(list.toString()).getRanges("src/Main.java")).asList()
+            .containsExactly(1, Integer.MAX_VALUE).inOrder();
+    }
+
+    @Test
+    void testModifiedFileIsReadAgain() throws Exception {
+        final Path list = Files.write(temporaryFolder.resolve("rewritten.txt"), List.of("src/Main.java:3"));
+        Files.setLastModifiedTime(list, FileTime.fromMillis(1_000_000L));
+
+        assertThat(ChangedLines.forFile(list.toString()).getRanges("src/Main.java")).asList()
+            .containsExactly(3, 3).inOrder();
+
+        Files.write(list, List.of("src/Main.java:8-9"));
+        Files.setLastModifiedTime(list, FileTime.fromMillis(2_000_000L));
+
+        assertThat(ChangedLines.forFile(list.toString()).getRanges("src/Main.java")).asList()
+            .containsExactly(8, 9).inOrder();
+    }
+
+    @Test
+    void testUntouchedFilesAreSkipped() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+        checkConfig.addProperty("changedLines",
+            writeChanges("checks/InputOther.java:1-100").toString());
+
+        verify(checkConfig, getPath("InputUnusedVariableCheck.java"), NO_VIOLATIONS);
+
+        // A file-level check reports the whole file once any line of it changed
+        final DefaultConfiguration touchedConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+        touchedConfig.addProperty("changedLines",
+            writeChanges("checks/InputUnusedVariableCheck.java:45").toString());
+
+        final String[] expected = {
+            "8:39: Parameter 'unusedParam' is declared but never used.",
+            "9:9: Local variable 'unusedLocal' is declared but never used.",
+            "25:14: Local variable 'unusedLoopVar' is declared but never used.",
+            "44:30: Parameter 'p' is declared but never used.",
+        };
+
+        verify(touchedConfig, getPath("InputUnusedVariableCheck.java"), expected);
+    }
+
+    @Test
+    void testUnchangedSubtreesAreSkipped() throws Exception {
+        final DefaultConfiguration untouchedConfig =
+            createModuleConfig(IfSpacingCheck.class);
+        untouchedConfig.addProperty("changedLines",
+            writeChanges("checks/InputIfSpacingCheck.java:9").toString());
+
+        verify(untouchedConfig, getPath("InputIfSpacingCheck.java"), NO_VIOLATIONS);
+
+        // The line right after a statement decides its spacing, so a change there counts
+        final DefaultConfiguration adjacentConfig =
+            createModuleConfig(IfSpacingCheck.class);
+        adjacentConfig.addProperty("changedLines",
+            writeChanges("checks/InputIfSpacingCheck.java:7").toString());
+
+        final String[] expected = {
+            "6:9: Standalone if statement should be preceded by a blank line.",
+            "6:9: Standalone if statement should be followed by a blank line.",
+        };
+
+        verify(adjacentConfig, getPath("InputIfSpacingCheck.java"), expected);
+    }
+
+    private Path writeChanges(String line) throws Exception {
+        return Files.write(Files.createTempFile(temporaryFolder, "changes", ".txt"), List.of(line));
+    }
+}
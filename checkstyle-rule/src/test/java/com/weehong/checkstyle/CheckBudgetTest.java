@@ -0,0 +1,120 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.weehong.checkstyle.checks.UnusedVariableCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class CheckBudgetTest extends AbstractModuleTestSupport {
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testNodeBudgetReplacesViolations() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+        checkConfig.addProperty("maxFileNodes", "5");
+
+        // The violation is informational, so it does not count as an error
+        assertThat(check(checkConfig, getPath("InputUnusedVariableCheck.java"))).containsExactly(
+            "1:0: [INFO] Analysis of 'InputUnusedVariableCheck.java' stopped after exceeding the budget of 5 nodes.");
+    }
+
+    @Test
+    void testFilesWithinBudgetAreChecked() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+        checkConfig.addProperty("maxFileNodes", "100000");
+        checkConfig.addProperty("maxFileMillis", "60000");
+
+        final String[] expected = {
+            "8:39: Parameter 'unusedParam' is declared but never used.",
+            "9:9: Local variable 'unusedLocal' is declared but never used.",
+            "25:14: Local variable 'unusedLoopVar' is declared but never used.",
+            "44:30: Parameter 'p' is declared but never used.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedVariableCheck.java"), expected);
+    }
+
+    @Test
+    void testTimeBudgetStopsLargeFiles() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("public class InputGenerated {");
+
+        for (int i = 0; i < 500; i++) {
+            lines.add("    void method" + i + "(int first, int second) {");
+            lines.add("        int unused = first;");
+            lines.add("        System.out.println(second);");
+            lines.add("    }");
+        }
+
+        lines.add("}");
+        final Path source = Files.write(temporaryFolder.resolve("InputGenerated.java"), lines);
+
+        // The clock advances by one millisecond every time it is read
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(SteppingClockCheck.class);
+        checkConfig.addProperty("maxFileMillis", "10");
+
+        assertThat(check(checkConfig, source.toString())).containsExactly(
+            "1:0: [INFO] Analysis of 'InputGenerated.java' stopped after exceeding the budget of 10 ms.");
+    }
+
+    private List<String> check(DefaultConfiguration checkConfig, String path) throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(checkConfig);
+        final Checker checker = createChecker(treeWalkerConfig);
+        final ViolationCollector collector = new ViolationCollector();
+
+        try {
+            checker.addListener(collector);
+            checker.process(List.of(new File(path)));
+        } finally {
+            checker.destroy();
+        }
+
+        final List<String> violations = new ArrayList<>();
+
+        for (AuditEvent event : collector.getEvents()) {
+            final String severity = event.getSeverityLevel().getName().toUpperCase();
+            violations.add(event.getLine() + ":" + event.getColumn() + ": [" + severity + "] " + event.getMessage());
+        }
+
+        violations.addAll(collector.getExceptions());
+        return violations;
+    }
+
+    /**
+     * UnusedVariableCheck on a clock that only advances when it is read.
+     */
+    public static final class SteppingClockCheck extends UnusedVariableCheck {
+
+        private long nanos;
+
+        @Override
+        protected long readClock() {
+            nanos += TimeUnit.MILLISECONDS.toNanos(1);
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.weehong.checkstyle.checks.SwaggerAnnotationLineBreakCheck;
+import com.weehong.checkstyle.checks.UnusedVariableCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class CheckResultCacheTest extends AbstractModuleTestSupport {
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testCachedResultsReplayIdentically() throws Exception {
+        final Path cacheFile = temporaryFolder.resolve("results.cache");
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+        checkConfig.addProperty("cacheFile", cacheFile.toString());
+
+        final String[] expected = {
+            "8:39: Parameter 'unusedParam' is declared but never used.",
+            "9:9: Local variable 'unusedLocal' is declared but never used.",
+            "25:14: Local variable 'unusedLoopVar' is declared but never used.",
+            "44:30: Parameter 'p' is declared but never used.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedVariableCheck.java"), expected);
+        assertThat(Files.size(cacheFile)).isGreaterThan(12L);
+
+        // Second run is served from the cache and must render the same messages
+        verify(checkConfig, getPath("InputUnusedVariableCheck.java"), expected);
+    }
+
+    @Test
+    void testPropertiesArePartOfTheKey() throws Exception {
+        final Path cacheFile = temporaryFolder.resolve("results.cache");
+        final DefaultConfiguration defaultConfig =
+            createModuleConfig(SwaggerAnnotationLineBreakCheck.class);
+        defaultConfig.addProperty("cacheFile", cacheFile.toString());
+
+        final String[] expectedDefault = {
+            "8:5: Swagger annotation @Schema with more than 2 properties "
+                + "must have each property on a separate line.",
+            "11:5: Swagger annotation @Schema with more than 2 properties "
+                + "must have each property on a separate line.",
+        };
+
+        verify(defaultConfig, getPath("InputSwaggerAnnotationLineBreakCustomThreshold.java"), expectedDefault);
+
+        final DefaultConfiguration customConfig =
+            createModuleConfig(SwaggerAnnotationLineBreakCheck.class);
+        customConfig.addProperty("cacheFile", cacheFile.toString());
+        customConfig.addProperty("maxPropertiesSameLine", "3");
+
+        final String[] expectedCustom = {
+            "8:5: Swagger annotation @Schema with more than 3 properties "
+                + "must have each property on a separate line.",
+        };
+
+        verify(customConfig, getPath("InputSwaggerAnnotationLineBreakCustomThreshold.java"), expectedCustom);
+    }
+
+    @Test
+    void testFlushKeepsEntriesOfOtherFiles() throws Exception {
+        final Path firstRun = temporaryFolder.resolve("first.cache");
+        final CheckResultCache first = CheckResultCache.forFile(firstRun.toString());
+        first.put(1L, CheckResultCache.encoder().putString("one").toByteArray());
+        first.put(2L, CheckResultCache.encoder().putString("two").toByteArray());
+        first.flush();
+
+        // A later run over other files adds its results without evicting the stored ones
+        final Path secondRun = temporaryFolder.resolve("second.cache");
+        Files.copy(firstRun, secondRun);
+        final CheckResultCache second = CheckResultCache.forFile(secondRun.toString());
+        second.put(3L, CheckResultCache.encoder().putString("three").toByteArray());
+        second.flush();
+
+        assertThat(CheckResultCache.getString(second.get(1L))).isEqualTo("one");
+        assertThat(CheckResultCache.getString(second.get(2L))).isEqualTo("two");
+        assertThat(CheckResultCache.getString(second.get(3L))).isEqualTo("three");
+    }
+
+    @Test
+    void testCorruptStoreIsEmpty() throws Exception {
+        final Path cacheFile = temporaryFolder.resolve("corrupt.cache");
+        final ByteBuffer store = ByteBuffer.allocate(40);
+        store.putInt(0x57484343).putInt(2).putInt(1);
+        store.putLong(5L).putInt(36).putInt(1000).putLong(System.currentTimeMillis());
+        Files.write(cacheFile, store.array());
+
+        // The only entry claims a result past the end of the file
+        assertThat(CheckResultCache.forFile(cacheFile.toString()).get(5L)).isNull();
+    }
+}
@@ -0,0 +1,215 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.FileStatefulCheck;
+import com.puppycrawl.tools.checkstyle.GlobalStatefulCheck;
+import com.puppycrawl.tools.checkstyle.StatelessCheck;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.weehong.checkstyle.checks.MappedWhitespaceFileCheck;
+import com.weehong.checkstyle.checks.NoTypeCastCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+class ConcurrencyStressTest extends AbstractModuleTestSupport {
+
+    private static final String CHECKS_PACKAGE = "com.weehong.checkstyle.checks.";
+
+    private static final int THREADS = 8;
+
+    private static final int COPIES = 4;
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testEveryCheckDeclaresItsState() throws Exception {
+        for (Class<?> check : getCheckClasses()) {
+            final int annotations = (check.isAnnotationPresent(StatelessCheck.class) ? 1 : 0)
+                + (check.isAnnotationPresent(FileStatefulCheck.class) ? 1 : 0)
+                + (check.isAnnotationPresent(GlobalStatefulCheck.class) ? 1 : 0);
+
+            assertWithMessage(check.getSimpleName()).that(annotations).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testParallelCheckersMatchSerialRun() throws Exception {
+        final List<File> files = copyInputs();
+        final DefaultConfiguration rootConfig = createAllChecksConfig(null);
+
+        final List<String> expected = check(rootConfig, files);
+        assertThat(String.join("\n", expected)).contains("MappedWhitespaceFileCheck");
+        assertThat(String.join("\n", expected)).contains("UnusedVariableCheck");
+
+        // Every thread checks every file with its own Checker
+        final List<List<String>> results = runInParallel(() -> check(rootConfig, files));
+
+        for (List<String> result : results) {
+            assertThat(result).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testParallelCheckersShareResultCache() throws Exception {
+        final List<File> files = copyInputs();
+        final List<String> expected = check(createAllChecksConfig(null), files);
+        final DefaultConfiguration cachedConfig =
+            createAllChecksConfig(temporaryFolder.resolve("results.cache").toString());
+
+        // The first round fills the cache concurrently, the second one replays it
+        for (int round = 0; round < 2; round++) {
+            for (List<String> result : runInParallel(() -> check(cachedConfig, files))) {
+                assertThat(result).isEqualTo(expected);
+            }
+        }
+    }
+
+    private static List<List<String>> runInParallel(Callable<List<String>> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<String>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            start.countDown();
+            final List<List<String>> results = new ArrayList<>();
+
+            for (Future<List<String>> future : futures) {
+                results.add(future.get());
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> check(DefaultConfiguration rootConfig, List<File> files) throws Exception {
+        final Checker checker = new Checker();
+        final ViolationCollector collector = new ViolationCollector();
+
+        try {
+            checker.setModuleClassLoader(Checker.class.getClassLoader());
+            checker.configure(rootConfig);
+            checker.addListener(collector);
+            checker.process(files);
+        } finally {
+            checker.destroy();
+        }
+
+        final List<String> violations = new ArrayList<>();
+
+        for (AuditEvent event : collector.getEvents()) {
+            violations.add(event.getFileName() + ":" + event.getLine() + ":" + event.getColumn() + ": "
+                + event.getMessage() + " [" + event.getSourceName() + "]");
+        }
+
+        violations.addAll(collector.getExceptions());
+        Collections.sort(violations);
+        return violations;
+    }
+
+    private static DefaultConfiguration createAllChecksConfig(String cacheFile) throws Exception {
+        final DefaultConfiguration rootConfig = createRootConfig(null);
+        rootConfig.addProperty("haltOnException", "false");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        rootConfig.addChild(treeWalkerConfig);
+
+        for (Class<?> check : getCheckClasses()) {
+            final DefaultConfiguration checkConfig = createModuleConfig(check);
+
+            // Small files are scanned by MappedWhitespaceFileCheck to exercise its mapped scan
+            if (check == MappedWhitespaceFileCheck.class) {
+                checkConfig.addProperty("threshold", "512");
+                checkConfig.addProperty("fileExtensions", "properties, xml");
+            }
+
+            if (AbstractCheck.class.isAssignableFrom(check)) {
+                if (cacheFile != null && AbstractCustomCheck.class.isAssignableFrom(check)) {
+                    checkConfig.addProperty("cacheFile", cacheFile);
+                }
+
+                treeWalkerConfig.addChild(checkConfig);
+            } else if (!check.isAnnotationPresent(GlobalStatefulCheck.class)) {
+                // A global check's result depends on how the files are split between Checkers
+                rootConfig.addChild(checkConfig);
+            }
+        }
+
+        return rootConfig;
+    }
+
+    private static List<Class<?>> getCheckClasses() throws Exception {
+        final Path classes = Paths.get(NoTypeCastCheck.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .resolve(CHECKS_PACKAGE.replace('.', '/'));
+        final List<Class<?>> checks = new ArrayList<>();
+
+        try (Stream<Path> list = Files.list(classes)) {
+            for (Path path : list.sorted().toList()) {
+                final String name = path.getFileName().toString();
+
+                if (name.endsWith(".class") && name.indexOf('$') < 0) {
+                    final Class<?> type = Class.forName(CHECKS_PACKAGE + name.substring(0, name.length() - 6));
+
+                    if (AbstractCheck.class.isAssignableFrom(type) || AbstractFileSetCheck.class.isAssignableFrom(type)) {
+                        checks.add(type);
+                    }
+                }
+            }
+        }
+
+        assertThat(checks).isNotEmpty();
+        return checks;
+    }
+
+    private List<File> copyInputs() throws Exception {
+        final Path inputs = Paths.get(getPath("InputNoTypeCastCheck.java")).getParent();
+        final List<File> files = new ArrayList<>();
+
+        try (Stream<Path> list = Files.list(inputs)) {
+            for (Path input : list.sorted().toList()) {
+                for (int copy = 0; copy < COPIES; copy++) {
+                    final Path target = temporaryFolder.resolve("copy" + copy).resolve(input.getFileName());
+                    Files.createDirectories(target.getParent());
+                    Files.copy(input, target);
+                    files.add(target.toFile());
+                }
+            }
+        }
+
+        return files;
+    }
+}
@@ -0,0 +1,71 @@
+package com.weehong.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.weehong.checkstyle.checks.NoVarKeywordCheck;
+import com.weehong.checkstyle.checks.UnusedVariableCheck;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ProfilingAuditListenerTest extends AbstractModuleTestSupport {
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testReportRanksChecksAndFiles() throws Exception {
+        final Path report = temporaryFolder.resolve("profile.txt");
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(UnusedVariableCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(NoVarKeywordCheck.class));
+        final DefaultConfiguration listenerConfig = createModuleConfig(ProfilingAuditListener.class);
+        listenerConfig.addProperty("file", report.toString());
+        final DefaultConfiguration rootConfig = createRootConfig(treeWalkerConfig);
+        rootConfig.addChild(listenerConfig);
+
+        final String inputPath = getPath("InputUnusedVariableCheck.java");
+        final String[] expected = {
+            "8:39: Parameter 'unusedParam' is declared but never used.",
+            "9:9: Local variable 'unusedLocal' is declared but never used.",
+            "25:14: Local variable 'unusedLoopVar' is declared but never used.",
+            "44:30: Parameter 'p' is declared but never used.",
+        };
+
+        verify(createChecker(rootConfig), inputPath, expected);
+
+        // Profiling stops with the audit, and the results stay available
+        assertThat(CheckProfiler.isEnabled()).isFalse();
+
+        final List<CheckProfiler.Stats> checks = CheckProfiler.getChecks();
+        assertThat(checks).hasSize(2);
+
+        for (CheckProfiler.Stats check : checks) {
+            assertThat(check.getCount()).isEqualTo(1);
+            assertThat(check.getTokens()).isGreaterThan(0L);
+            assertThat(check.getNanos()).isGreaterThan(0L);
+            assertThat(check.getSlowestPart()).isEqualTo(inputPath);
+        }
+
+        final List<CheckProfiler.Stats> files = CheckProfiler.getFiles();
+        assertThat(files).hasSize(1);
+        assertThat(files.get(0).getName()).isEqualTo(inputPath);
+        assertThat(files.get(0).getCount()).isEqualTo(2);
+
+        final String text = Files.readString(report);
+        assertThat(text).startsWith("Custom check profile: 2 checks, 1 files");
+        assertThat(text).contains("UnusedVariableCheck (" + inputPath + ")");
+        assertThat(text).contains("NoVarKeywordCheck (" + inputPath + ")");
+    }
+}
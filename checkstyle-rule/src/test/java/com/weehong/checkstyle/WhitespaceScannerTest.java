@@ -0,0 +1,88 @@
+package com.weehong.checkstyle;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class WhitespaceScannerTest {
+
+    private static final String TEXT = "key = value \r\néè\t😀\t\r\r\n \n  \f\n😀last\t";
+
+    @Test
+    void testFindings() {
+        final List<String> findings = new ArrayList<>();
+        new WhitespaceScanner(new FindingCollector(findings)).scan(TEXT);
+
+        // The tab after the surrogate pair is not the first of its line
+        assertThat(findings).containsExactly(
+            "trailing 1",
+            "tab 2:2",
+            "trailing 2",
+            "trailing 4",
+            "blank 4",
+            "trailing 5",
+            "blank 5",
+            "tab 6:6",
+            "trailing 6").inOrder();
+    }
+
+    @Test
+    void testBytesMatchCharacters() {
+        final List<String> expected = new ArrayList<>();
+        new WhitespaceScanner(new FindingCollector(expected)).scan(TEXT);
+        final byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+
+        // Every split point, including inside multi-byte characters and between CR and LF
+        for (int split = 0; split <= bytes.length; split++) {
+            final List<String> findings = new ArrayList<>();
+            final WhitespaceScanner scanner = new WhitespaceScanner(new FindingCollector(findings));
+            scanner.start();
+            scanner.accept(ByteBuffer.wrap(bytes, 0, split), true);
+            scanner.accept(ByteBuffer.wrap(bytes, split, bytes.length - split), true);
+            scanner.finish();
+
+            assertThat(findings).containsExactlyElementsIn(expected).inOrder();
+        }
+    }
+
+    @Test
+    void testEmptyLastLineIsNotCounted() {
+        final List<String> findings = new ArrayList<>();
+        new WhitespaceScanner(new FindingCollector(findings)).scan("a\n\n");
+
+        assertThat(findings).isEmpty();
+
+        new WhitespaceScanner(new FindingCollector(findings)).scan("a\n\n\n");
+
+        assertThat(findings).containsExactly("blank 3");
+    }
+
+    private static final class FindingCollector implements WhitespaceScanner.Handler {
+
+        private final List<String> findings;
+
+        private FindingCollector(List<String> findings) {
+            this.findings = findings;
+        }
+
+        @Override
+        public void tab(int lineNo, int charIndex) {
+            findings.add("tab " + lineNo + ":" + charIndex);
+        }
+
+        @Override
+        public void trailingWhitespace(int lineNo) {
+            findings.add("trailing " + lineNo);
+        }
+
+        @Override
+        public void repeatedBlankLine(int lineNo) {
+            findings.add("blank " + lineNo);
+        }
+    }
+}
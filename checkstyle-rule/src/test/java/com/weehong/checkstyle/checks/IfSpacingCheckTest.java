@@ -37,4 +37,19 @@ public class IfSpacingCheckTest extends AbstractModuleTestSupport {
 
         verify(checkConfig, getPath("InputIfSpacingCheckComprehensive.java"), expected);
     }
+
+    @Test
+    public void testConsecutiveIfStatements() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(IfSpacingCheck.class);
+
+        final String[] expected = {
+            "7:9: Standalone if statement should be preceded by a blank line.",
+            "7:9: Standalone if statement should be followed by a blank line.",
+            "10:9: Standalone if statement should be preceded by a blank line.",
+            "14:9: Standalone if statement should be followed by a blank line.",
+        };
+
+        verify(checkConfig, getPath("InputIfSpacingCheckConsecutive.java"), expected);
+    }
 }
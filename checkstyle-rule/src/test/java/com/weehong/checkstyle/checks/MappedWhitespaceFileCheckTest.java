@@ -0,0 +1,119 @@
+package com.weehong.checkstyle.checks;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.checks.regexp.RegexpSinglelineCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck;
+import org.junit.jupiter.api.Test;
+
+class MappedWhitespaceFileCheckTest extends AbstractModuleTestSupport {
+
+    private static final String INPUT = "InputMappedWhitespaceFileCheck.properties";
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testLargeFile() throws Exception {
+        final DefaultConfiguration rootConfig =
+            createMappedConfig(0, createModuleConfig(MappedWhitespaceFileCheck.class));
+
+        // Multi-byte characters, tab stops, CRLF and lone CR line endings
+        final String[] expected = {
+            "2:5: File contains tab characters (this is the first instance).",
+            "3: Line has trailing spaces.",
+            "5: More than 1 consecutive blank line is not allowed.",
+            "6: Line has trailing spaces.",
+            "7: Line has trailing spaces.",
+            "8: Line has trailing spaces.",
+            "9: Line has trailing spaces.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(createChecker(rootConfig), getPath(INPUT), expected);
+    }
+
+    @Test
+    void testEachLineMatchesStandardModules() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(MappedWhitespaceFileCheck.class);
+        checkConfig.addProperty("eachLine", "true");
+
+        final DefaultConfiguration tabConfig = createModuleConfig(FileTabCharacterCheck.class);
+        tabConfig.addProperty("eachLine", "true");
+        final DefaultConfiguration trailingConfig = createModuleConfig(RegexpSinglelineCheck.class);
+        trailingConfig.addProperty("format", "\\s+$");
+        trailingConfig.addProperty("message", "Line has trailing spaces.");
+        final DefaultConfiguration standardConfig = createRootConfig(tabConfig);
+        standardConfig.addChild(trailingConfig);
+        standardConfig.addChild(createModuleConfig(NoMultipleBlankLinesFileCheck.class));
+
+        final String[] expected = {
+            "2:5: Line contains a tab character.",
+            "3: Line has trailing spaces.",
+            "5: More than 1 consecutive blank line is not allowed.",
+            "6: Line has trailing spaces.",
+            "7: Line has trailing spaces.",
+            "7:8: Line contains a tab character.",
+            "8: Line has trailing spaces.",
+            "8:1: Line contains a tab character.",
+            "9: Line has trailing spaces.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(createChecker(createMappedConfig(0, checkConfig)), getPath(INPUT), expected);
+        verify(createChecker(standardConfig), getPath(INPUT), expected);
+    }
+
+    @Test
+    void testFileBelowThresholdIsSkipped() throws Exception {
+        final DefaultConfiguration rootConfig =
+            createMappedConfig(1024, createModuleConfig(MappedWhitespaceFileCheck.class));
+
+        final String[] expected = {};
+
+        verify(createChecker(rootConfig), getPath(INPUT), expected);
+    }
+
+    @Test
+    void testUnsupportedCharsetIsReported() throws Exception {
+        final DefaultConfiguration rootConfig =
+            createMappedConfig(0, createModuleConfig(MappedWhitespaceFileCheck.class));
+        rootConfig.addProperty("charset", "UTF-16");
+
+        final String[] expected = {
+            "1: File is larger than 0 bytes and cannot be scanned byte by byte in charset UTF-16.",
+        };
+
+        verify(createChecker(rootConfig), getPath(INPUT), expected);
+    }
+
+    @Test
+    void testLargeFileIsNotReportedTwice() throws Exception {
+        final DefaultConfiguration hygieneConfig = createModuleConfig(WhitespaceHygieneFileCheck.class);
+        hygieneConfig.addProperty("maxFileSize", "16");
+        final DefaultConfiguration rootConfig =
+            createMappedConfig(16, createModuleConfig(MappedWhitespaceFileCheck.class));
+        rootConfig.addChild(hygieneConfig);
+
+        // WhitespaceHygieneFileCheck skips the file, so each violation comes from the mapped scan only
+        final String[] expected = {
+            "2:5: File contains tab characters (this is the first instance).",
+            "3: Line has trailing spaces.",
+            "5: More than 1 consecutive blank line is not allowed.",
+            "6: Line has trailing spaces.",
+            "7: Line has trailing spaces.",
+            "8: Line has trailing spaces.",
+            "9: Line has trailing spaces.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(createChecker(rootConfig), getPath(INPUT), expected);
+    }
+
+    private static DefaultConfiguration createMappedConfig(long threshold, DefaultConfiguration checkConfig) {
+        checkConfig.addProperty("threshold", String.valueOf(threshold));
+        return createRootConfig(checkConfig);
+    }
+}
@@ -0,0 +1,65 @@
+package com.weehong.checkstyle.checks;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import org.junit.jupiter.api.Test;
+
+class NoFullyQualifiedTypeReferenceCheckTest extends AbstractModuleTestSupport {
+
+    private static final String INPUT = "InputNoFullyQualifiedTypeReferenceCheck.java";
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testDefaultPrefix() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(NoFullyQualifiedTypeReferenceCheck.class);
+
+        // Imports, the package, annotation names, comments and strings are exempt
+        final String[] expected = {
+            "9: Avoid using fully qualified class name 'java.util.HashMap'. Use import statements instead.",
+            "9: Avoid using fully qualified class name 'java.util.Map'. Use import statements instead.",
+            "11: Avoid using fully qualified class name 'java.util.List.of'. Use import statements instead.",
+            "13: Avoid using fully qualified class name 'java.util.Map.Entry'. Use import statements instead.",
+            "21: Avoid using fully qualified class name 'java.util.Objects.requireNonNull'. "
+                + "Use import statements instead.",
+        };
+
+        verify(checkConfig, getPath(INPUT), expected);
+    }
+
+    @Test
+    void testConfiguredPrefixes() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(NoFullyQualifiedTypeReferenceCheck.class);
+        checkConfig.addProperty("packagePrefixes", "com.horaion, org.springframework");
+        checkConfig.addProperty("message",
+            "Fully qualified class names are strictly prohibited. Use import statements instead.");
+
+        final String[] expected = {
+            "15: Fully qualified class names are strictly prohibited. Use import statements instead.",
+        };
+
+        verify(checkConfig, getPath(INPUT), expected);
+    }
+
+    @Test
+    void testOneViolationPerLine() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(NoFullyQualifiedTypeReferenceCheck.class);
+        checkConfig.addProperty("message", "Use import statements instead.");
+
+        // Without the name in the message, line 9 is reported once
+        final String[] expected = {
+            "9: Use import statements instead.",
+            "11: Use import statements instead.",
+            "13: Use import statements instead.",
+            "21: Use import statements instead.",
+        };
+
+        verify(checkConfig, getPath(INPUT), expected);
+    }
+}
@@ -58,4 +58,19 @@ class NoMultipleBlankLinesFileCheckTest extends AbstractModuleTestSupport {
 
         verify(checkConfig, getPath("InputNoMultipleBlankLinesViolation.xml"), expected);
     }
+
+    @Test
+    void testMixedLineEndings() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(NoMultipleBlankLinesFileCheck.class);
+
+        // CRLF, lone CR and a whitespace-only last line without a terminator
+        final String[] expected = {
+            "3: More than 1 consecutive blank line is not allowed.",
+            "6: More than 1 consecutive blank line is not allowed.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(checkConfig, getPath("InputNoMultipleBlankLinesLineEndings.properties"), expected);
+    }
 }
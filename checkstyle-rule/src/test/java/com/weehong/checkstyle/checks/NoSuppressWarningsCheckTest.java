@@ -34,4 +34,16 @@ class NoSuppressWarningsCheckTest extends AbstractModuleTestSupport {
 
         verify(checkConfig, getPath("InputNoSuppressWarningsViolation.java"), expected);
     }
+
+    @Test
+    void testQualifiedSuppressWarnings() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(NoSuppressWarningsCheck.class);
+
+        final String[] expected = {
+            "5:5: Avoid using @SuppressWarnings annotation. Fix the underlying issue instead of suppressing the warning.",
+        };
+
+        verify(checkConfig, getPath("InputNoSuppressWarningsQualified.java"), expected);
+    }
 }
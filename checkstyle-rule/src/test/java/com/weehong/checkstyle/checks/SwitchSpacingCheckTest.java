@@ -108,6 +108,28 @@ class SwitchSpacingCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputSwitchSpacingCheckWithComments.java"), expected);
     }
 
+    @Test
+    void testSwitchSpacingRulesAndExpressions() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(SwitchSpacingCheck.class);
+
+        // Arrow-style rules are spaced like case groups; switch expressions are not standalone
+        final String[] expected = {
+            "7:41: First case group should be followed by a blank line.",
+            "8:13: Case group should be preceded by a blank line.",
+            "8:23: Middle case group should be followed by a blank line.",
+            "11:13: Case group should be preceded by a blank line.",
+            "11:23: Middle case group should be followed by a blank line.",
+            "12:13: Case group should be preceded by a blank line.",
+            "26:23: First case group should be followed by a blank line.",
+            "27:13: Case group should be preceded by a blank line.",
+            "34:17: First case group should be followed by a blank line.",
+            "35:13: Case group should be preceded by a blank line.",
+        };
+
+        verify(checkConfig, getPath("InputSwitchSpacingCheckRules.java"), expected);
+    }
+
     @Test
     void testGetRequiredTokens() {
         final SwitchSpacingCheck check = new SwitchSpacingCheck();
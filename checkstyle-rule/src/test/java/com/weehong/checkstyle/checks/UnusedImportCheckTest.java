@@ -70,4 +70,16 @@ class UnusedImportCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputUnusedImportAnnotation.java"), expected);
     }
 
+    @Test
+    void testQualifiedReferences() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedImportCheck.class);
+
+        final String[] expected = {
+            "4:1: Unused import - 'java.util.Optional'.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedImportQualified.java"), expected);
+    }
+
 }
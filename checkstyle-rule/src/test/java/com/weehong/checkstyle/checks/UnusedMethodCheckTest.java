@@ -85,6 +85,20 @@ class UnusedMethodCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputUnusedMethodCheckMethodRefs.java"), expected);
     }
 
+    @Test
+    void testMethodsAreScopedByTypeAndArity() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedMethodCheck.class);
+
+        // Unqualified calls only reach their own and enclosing types; overloads differ by arity
+        final String[] expected = {
+            "13:5: Private method 'helper(int,int)' is declared but never used.",
+            "31:9: Private method 'helper(int)' is declared but never used.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedMethodCheckScopes.java"), expected);
+    }
+
     @Test
     void testGetAcceptableTokens() {
         final UnusedMethodCheck check = new UnusedMethodCheck();
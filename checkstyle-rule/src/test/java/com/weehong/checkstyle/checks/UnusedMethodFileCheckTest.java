@@ -0,0 +1,85 @@
+package com.weehong.checkstyle.checks;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class UnusedMethodFileCheckTest extends AbstractModuleTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testReferencesAcrossFiles() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedMethodFileCheck.class);
+        checkConfig.addProperty("ignorePattern", "^ignored");
+
+        final String servicePath = getPath("InputUnusedMethodFileCheckService.java");
+        final String clientPath = getPath("InputUnusedMethodFileCheckClient.java");
+
+        // Methods called from the other file are used; private, protected and exempt methods are skipped
+        final Map<String, List<String>> expected = new HashMap<>();
+        expected.put(servicePath, List.of(
+            "9:5: Method 'neverCalled' is declared but never referenced in any checked file.",
+            "12:5: Method 'packagePrivateNeverCalled' is declared but never referenced in any checked file.",
+            "51:5: Method 'getNothing' is declared but never referenced in any checked file.",
+            "54:5: Method 'settle' is declared but never referenced in any checked file."
+        ));
+        expected.put(clientPath, List.of(
+            "12:5: Method 'unusedInClient' is declared but never referenced in any checked file."
+        ));
+
+        verify(createChecker(createCollectorConfig(checkConfig)),
+            new File[] {new File(servicePath), new File(clientPath)},
+            expected);
+    }
+
+    @Test
+    void testSingleFileWithoutCallers() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedMethodFileCheck.class);
+
+        // Without the client file, the methods it calls are reported as well
+        final String[] expected = {
+            "9:5: Method 'neverCalled' is declared but never referenced in any checked file.",
+            "12:5: Method 'packagePrivateNeverCalled' is declared but never referenced in any checked file.",
+            "15:5: Method 'usedViaReference' is declared but never referenced in any checked file.",
+            "34:5: Method 'ignoredByPattern' is declared but never referenced in any checked file.",
+            "51:5: Method 'getNothing' is declared but never referenced in any checked file.",
+            "54:5: Method 'settle' is declared but never referenced in any checked file.",
+        };
+
+        verify(createChecker(createCollectorConfig(checkConfig)),
+            getPath("InputUnusedMethodFileCheckService.java"), expected);
+    }
+
+    @Test
+    void testMissingCollectorIsReported() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedMethodFileCheck.class);
+
+        final String[] expected = {
+            "1:1: No file was indexed for unused methods; configure UnusedMethodCollectorCheck in TreeWalker.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedMethodFileCheckService.java"), expected);
+    }
+
+    private static DefaultConfiguration createCollectorConfig(DefaultConfiguration checkConfig) {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(UnusedMethodCollectorCheck.class));
+
+        final DefaultConfiguration rootConfig = createRootConfig(treeWalkerConfig);
+        rootConfig.addChild(checkConfig);
+        return rootConfig;
+    }
+}
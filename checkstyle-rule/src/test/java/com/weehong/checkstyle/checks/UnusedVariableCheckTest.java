@@ -58,12 +58,30 @@ public class UnusedVariableCheckTest extends AbstractModuleTestSupport {
         verify(checkConfig, getPath("InputUnusedVariableCheckMainMethod.java"), expected);
     }
 
+    @Test
+    public void testLexicalScopes() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(UnusedVariableCheck.class);
+
+        // Sibling blocks, lambdas and anonymous class methods each resolve names in their own scope
+        final String[] expected = {
+            "9:9: Local variable 'unusedInFieldLambda' is declared but never used.",
+            "15:13: Local variable 'value' is declared but never used.",
+            "24:13: Local variable 'unusedInLambda' is declared but never used.",
+            "33:17: Local variable 'unusedInner' is declared but never used.",
+            "39:9: Local variable 'label' is declared but never used.",
+            "53:13: Local variable 'handled' is declared but never used.",
+        };
+
+        verify(checkConfig, getPath("InputUnusedVariableCheckScopes.java"), expected);
+    }
+
     @Test
     public void testGetAcceptableTokens() {
         final UnusedVariableCheck check = new UnusedVariableCheck();
         int[] tokens = check.getAcceptableTokens();
         // Verify tokens are returned
-        assert tokens.length == 5;
+        assert tokens.length == 10;
     }
 
     @Test
@@ -71,6 +89,6 @@ public class UnusedVariableCheckTest extends AbstractModuleTestSupport {
         final UnusedVariableCheck check = new UnusedVariableCheck();
         int[] tokens = check.getDefaultTokens();
         // Verify tokens are returned
-        assert tokens.length == 5;
+        assert tokens.length == 10;
     }
 }
\ No newline at end of file
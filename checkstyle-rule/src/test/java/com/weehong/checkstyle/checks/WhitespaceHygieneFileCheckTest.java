@@ -0,0 +1,79 @@
+package com.weehong.checkstyle.checks;
+
+import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.checks.regexp.RegexpSinglelineCheck;
+import com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck;
+import org.junit.jupiter.api.Test;
+
+class WhitespaceHygieneFileCheckTest extends AbstractModuleTestSupport {
+
+    private static final String INPUT = "InputWhitespaceHygieneFileCheck.properties";
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/weehong/checkstyle/checks";
+    }
+
+    @Test
+    void testCorrectJavaFile() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(WhitespaceHygieneFileCheck.class);
+
+        final String[] expected = {};
+
+        verify(checkConfig, getPath("InputNoMultipleBlankLinesCorrect.java"), expected);
+    }
+
+    @Test
+    void testFirstTabOfFile() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(WhitespaceHygieneFileCheck.class);
+
+        // Multi-byte characters, tab stops, CRLF and lone CR line endings
+        final String[] expected = {
+            "2:5: File contains tab characters (this is the first instance).",
+            "3: Line has trailing spaces.",
+            "5: More than 1 consecutive blank line is not allowed.",
+            "6: Line has trailing spaces.",
+            "7: Line has trailing spaces.",
+            "8: Line has trailing spaces.",
+            "9: Line has trailing spaces.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(checkConfig, getPath(INPUT), expected);
+    }
+
+    @Test
+    void testEachLineMatchesStandardModules() throws Exception {
+        final DefaultConfiguration checkConfig =
+            createModuleConfig(WhitespaceHygieneFileCheck.class);
+        checkConfig.addProperty("eachLine", "true");
+
+        final DefaultConfiguration tabConfig = createModuleConfig(FileTabCharacterCheck.class);
+        tabConfig.addProperty("eachLine", "true");
+        final DefaultConfiguration trailingConfig = createModuleConfig(RegexpSinglelineCheck.class);
+        trailingConfig.addProperty("format", "\\s+$");
+        trailingConfig.addProperty("message", "Line has trailing spaces.");
+        final DefaultConfiguration standardConfig = createRootConfig(tabConfig);
+        standardConfig.addChild(trailingConfig);
+        standardConfig.addChild(createModuleConfig(NoMultipleBlankLinesFileCheck.class));
+
+        final String[] expected = {
+            "2:5: Line contains a tab character.",
+            "3: Line has trailing spaces.",
+            "5: More than 1 consecutive blank line is not allowed.",
+            "6: Line has trailing spaces.",
+            "7: Line has trailing spaces.",
+            "7:8: Line contains a tab character.",
+            "8: Line has trailing spaces.",
+            "8:1: Line contains a tab character.",
+            "9: Line has trailing spaces.",
+            "9: More than 1 consecutive blank line is not allowed.",
+        };
+
+        verify(checkConfig, getPath(INPUT), expected);
+        verify(createChecker(standardConfig), getPath(INPUT), expected);
+    }
+}
@@ -0,0 +1,107 @@
+package com.weehong.checkstyle.filters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class GeneratedSourceFileFilterTest {
+
+    @TempDir
+    Path temporaryFolder;
+
+    @Test
+    void testGeneratedHeadersAreRejected() throws Exception {
+        final GeneratedSourceFileFilter filter = new GeneratedSourceFileFilter();
+
+        assertThat(filter.accept(write("Proto.java",
+            "// Generated by the protocol buffer compiler.  DO NOT EDIT!",
+            "package demo;"))).isFalse();
+        assertThat(filter.accept(write("MapperImpl.java",
+            "package demo;",
+            "import javax.annotation.processing.Generated;",
+            "@Generated(value = \"org.mapstruct.ap.MappingProcessor\")",
+            "public class MapperImpl {}"))).isFalse();
+        assertThat(filter.accept(write("Query.java",
+            "/*",
+            " * Code generated by jOOQ. DO NOT EDIT.",
+            " */",
+            "package demo;"))).isFalse();
+        assertThat(filter.accept(write("Model.java",
+            "package demo;",
+            "@jakarta.annotation.Generated(\"org.openapitools.codegen\")",
+            "public class Model {}"))).isFalse();
+    }
+
+    @Test
+    void testHandWrittenFilesAreAccepted() throws Exception {
+        final GeneratedSourceFileFilter filter = new GeneratedSourceFileFilter();
+
+        assertThat(filter.accept(write("Service.java",
+            "package demo;",
+            "@GeneratedValue",
+            "public class Service {}"))).isTrue();
+        assertThat(filter.accept(write("Entity.java",
+            "package demo;",
+            "import org.hibernate.annotations.Generated;",
+            "public class Entity {",
+            "    @Generated",
+            "    private long version;",
+            "}"))).isTrue();
+        assertThat(filter.accept(write("Qualified.java",
+            "package demo;",
+            "public class Qualified {",
+            "    @org.hibernate.annotations.Generated",
+            "    private long version;",
+            "}"))).isTrue();
+        assertThat(filter.accept(write("Constants.java",
+            "package demo;",
+            "/**",
+            " * Values shared with the C client; do not edit without updating it.",
+            " */",
+            "public class Constants {}"))).isTrue();
+        assertThat(filter.accept(write("notes.xml", "<!-- Code generated by tool. DO NOT EDIT. -->"))).isTrue();
+        assertThat(filter.accept(temporaryFolder.resolve("Missing.java").toString())).isTrue();
+    }
+
+    @Test
+    void testOnlyTheHeaderIsRead() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        lines.add("package demo;");
+
+        for (int i = 0; i < 400; i++) {
+            lines.add("// padding line " + i);
+        }
+
+        lines.add("@javax.annotation.processing.Generated(\"late\")");
+        lines.add("public class Late {}");
+        final String late = Files.write(temporaryFolder.resolve("Late.java"), lines).toString();
+
+        final GeneratedSourceFileFilter filter = new GeneratedSourceFileFilter();
+        assertThat(filter.accept(late)).isTrue();
+
+        filter.setHeaderBytes(64 * 1024);
+        assertThat(filter.accept(late)).isFalse();
+
+        filter.setHeaderBytes(0);
+        assertThat(filter.accept(late)).isTrue();
+    }
+
+    @Test
+    void testRelativeNamesAreResolvedAgainstBasedir() throws Exception {
+        write("Relative.java", "/* Code generated by tool. DO NOT EDIT. */");
+        final GeneratedSourceFileFilter filter = new GeneratedSourceFileFilter();
+        filter.setBasedir(temporaryFolder.toString());
+
+        assertThat(filter.accept("Relative.java")).isFalse();
+    }
+
+    private String write(String name, String... lines) throws Exception {
+        return Files.write(temporaryFolder.resolve(name), List.of(lines)).toString();
+    }
+}
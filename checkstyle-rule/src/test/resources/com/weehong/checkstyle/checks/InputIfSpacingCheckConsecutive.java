@@ -0,0 +1,19 @@
+package com.weehong.checkstyle.checks;
+
+public class InputIfSpacingCheckConsecutive {
+
+    int transition(int state) {
+        int next = state;
+        if (state == 1) {
+            next = 2;
+        }
+        if (state == 2) {
+            next = 3;
+        }
+
+        if (state == 3) {
+            next = 4;
+        }
+        return next;
+    }
+}
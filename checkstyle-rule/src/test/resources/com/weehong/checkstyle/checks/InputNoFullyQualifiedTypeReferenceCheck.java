@@ -0,0 +1,25 @@
+package com.weehong.checkstyle.checks;
+
+import java.util.List;
+import static java.util.Map.entry;
+
+@java.lang.Deprecated
+public class InputNoFullyQualifiedTypeReferenceCheck {
+
+    private final java.util.Map<String, Integer> counts = new java.util.HashMap<>();
+
+    private final List<String> names = java.util.List.of("java.util.HashMap");
+
+    private final Class<?> type = java.util.Map.Entry.class;
+
+    private final org.springframework.context.ApplicationContext context = null;
+
+    private final Object packageOnly = java.util.concurrent.atomic;
+
+    /** Uses {@link java.util.HashMap}. */
+    void run(@org.springframework.lang.NonNull String value) {
+        java.util.Objects.requireNonNull(value);
+        java.Foo.bar();
+        String key = entry("a", 1).getKey();
+    }
+}
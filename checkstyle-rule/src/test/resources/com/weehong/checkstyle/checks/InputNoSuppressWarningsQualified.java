@@ -0,0 +1,12 @@
+package com.weehong.checkstyle.checks;
+
+public class InputNoSuppressWarningsQualified {
+
+    @java.lang.SuppressWarnings("unchecked")
+    public void qualified() {
+    }
+
+    @Deprecated
+    public void other() {
+    }
+}
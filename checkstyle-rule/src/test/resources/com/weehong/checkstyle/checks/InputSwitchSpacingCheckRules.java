@@ -0,0 +1,39 @@
+package com.weehong.checkstyle.checks;
+
+public class InputSwitchSpacingCheckRules {
+    void arrowStatement(int x) {
+
+        switch (x) {
+            case 1 -> System.out.println("one");
+            case 2 -> {
+                System.out.println("two");
+            }
+            case 3 -> throw new IllegalStateException();
+            default -> System.out.println("other");
+        }
+
+    }
+
+    int arrowExpression(int x) {
+        int y = switch (x) {
+            case 1 -> 10;
+
+            case 2 -> 20;
+
+            default -> 0;
+        };
+        return y + switch (x) {
+            case 1 -> 1;
+            default -> 0;
+        };
+    }
+
+    String colonExpression(int x) {
+        return switch (x) {
+            case 1:
+                yield "one";
+            default:
+                yield "other";
+        };
+    }
+}
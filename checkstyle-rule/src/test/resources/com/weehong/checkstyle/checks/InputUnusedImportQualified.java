@@ -0,0 +1,18 @@
+package com.weehong.checkstyle.checks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class InputUnusedImportQualified {
+
+    private Map.Entry<String, String> entry;
+
+    private final long timeout = TimeUnit.SECONDS.toMillis(1);
+
+    private final java.util.Set<String> qualified = null;
+
+    private final String chained = new StringBuilder().append("a").append("b").toString().trim();
+
+}
@@ -0,0 +1,44 @@
+package com.weehong.checkstyle.checks;
+
+public class InputUnusedMethodCheckScopes {
+
+    public void run() {
+        helper(1);
+        format("a", "b", "c");
+    }
+
+    private void helper(int value) {
+    }
+
+    private void helper(int value, int other) {
+    }
+
+    private void format(String pattern, Object... arguments) {
+    }
+
+    static class First {
+
+        public void run() {
+            helper(1);
+        }
+
+        private void helper(int value) {
+        }
+    }
+
+    static class Second {
+
+        private void helper(int value) {
+        }
+
+        private void shared() {
+        }
+    }
+
+    static class Third {
+
+        public void run(Second second) {
+            second.shared();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.weehong.checkstyle.checks;
+
+public class InputUnusedMethodFileCheckClient {
+
+    public static void main(String[] args) {
+        InputUnusedMethodFileCheckService service = new InputUnusedMethodFileCheckService();
+        System.out.println(service.usedByClient());
+        Runnable reference = service::usedViaReference;
+        reference.run();
+    }
+
+    public int unusedInClient() {
+        return 0;
+    }
+}
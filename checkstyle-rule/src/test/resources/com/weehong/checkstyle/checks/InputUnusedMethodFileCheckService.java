@@ -0,0 +1,61 @@
+package com.weehong.checkstyle.checks;
+
+public class InputUnusedMethodFileCheckService {
+
+    public String usedByClient() {
+        return helper();
+    }
+
+    public void neverCalled() {
+    }
+
+    void packagePrivateNeverCalled() {
+    }
+
+    void usedViaReference() {
+    }
+
+    protected void protectedHook() {
+    }
+
+    private String helper() {
+        return "";
+    }
+
+    @Override
+    public String toString() {
+        return usedByClient();
+    }
+
+    @PostConstruct
+    public void initialize() {
+    }
+
+    public void ignoredByPattern() {
+    }
+
+    public String getName() {
+        return "";
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public void setName(String name) {
+    }
+
+    public void writeExternal(Object out) {
+    }
+
+    public void getNothing() {
+    }
+
+    public void settle(int first, int second) {
+    }
+
+    interface Callback {
+
+        void onEvent();
+    }
+}
@@ -0,0 +1,56 @@
+package com.weehong.checkstyle.checks;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class InputUnusedVariableCheckScopes {
+
+    private final Function<String, Integer> field = text -> {
+        int unusedInFieldLambda = 1;
+        return text.length();
+    };
+
+    public void siblingBlocks(boolean flag) {
+        if (flag) {
+            int value = 1;
+        } else {
+            int value = 2;
+            System.out.println(value);
+        }
+    }
+
+    public Function<String, Integer> lambda(List<String> items) {
+        return text -> {
+            int unusedInLambda = items.size();
+            return text.length();
+        };
+    }
+
+    public Runnable anonymous(int captured) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                int unusedInner = captured;
+            }
+        };
+    }
+
+    public Runnable shadowedByInnerLocal() {
+        String label = "outer";
+        return new Runnable() {
+            @Override
+            public void run() {
+                String label = "inner";
+                System.out.println(label);
+            }
+        };
+    }
+
+    public void catchParameters() {
+        try {
+            Integer.parseInt("1");
+        } catch (NumberFormatException e) {
+            int handled = 0;
+        }
+    }
+}